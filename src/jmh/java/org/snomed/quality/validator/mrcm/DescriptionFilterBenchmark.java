@@ -0,0 +1,62 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.HashSet;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares filtering description rows on the concept id field with a boxed Set&lt;Long&gt; against {@link ConceptIdSet}.
+ * Run with the gc profiler to see the allocation rate of each:
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="DescriptionFilterBenchmark -prof gc"
+ * </pre>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class DescriptionFilterBenchmark {
+
+	// Roughly the ratio of concepts used in MRCM templates to concepts with descriptions in the International release
+	private static final int IN_USE_CONCEPTS = 5_000;
+	private static final int DESCRIPTION_ROWS = 100_000;
+
+	private Set<Long> boxedConceptIds;
+	private ConceptIdSet conceptIdSet;
+	private String[] conceptIdFields;
+
+	@Setup
+	public void setUp() {
+		Random random = new Random(20240131);
+		boxedConceptIds = new HashSet<>();
+		conceptIdFields = new String[DESCRIPTION_ROWS];
+		for (int i = 0; i < DESCRIPTION_ROWS; i++) {
+			long conceptId = 100_000_000L + random.nextInt(400_000_000);
+			conceptIdFields[i] = Long.toString(conceptId) + "00" + (i % 10);
+			if (boxedConceptIds.size() < IN_USE_CONCEPTS && random.nextInt(20) == 0) {
+				boxedConceptIds.add(Long.parseLong(conceptIdFields[i]));
+			}
+		}
+		conceptIdSet = new ConceptIdSet(boxedConceptIds);
+	}
+
+	@Benchmark
+	public void boxedSet(Blackhole blackhole) {
+		for (String conceptId : conceptIdFields) {
+			blackhole.consume(boxedConceptIds.contains(Long.parseLong(conceptId)));
+		}
+	}
+
+	@Benchmark
+	public void conceptIdSet(Blackhole blackhole) {
+		for (String conceptId : conceptIdFields) {
+			blackhole.consume(conceptIdSet.contains(conceptId));
+		}
+	}
+}
@@ -10,7 +10,9 @@ import java.nio.file.NotDirectoryException;
 import java.text.DateFormat;
 import java.text.ParseException;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
 
 import static org.snomed.quality.validator.mrcm.Constants.*;
@@ -68,17 +70,43 @@ public class Application {
 
 	private void run(String releasePackage, final String releaseDate, final List<ContentType> contentTypes,
 			final File resultDir) throws ReleaseImportException, IOException, ServiceException {
-		for (final ContentType contentType : contentTypes) {
-			final ValidationService service = new ValidationService();
+		if (releasePackage == null) {
+			// No external package specified, using default soft link release path.
+			releasePackage = "release";
+		}
+		// All requested views are validated from a single load of the release
+		final List<ValidationRun> runs = new ArrayList<>();
+		for (final ContentType contentType : new LinkedHashSet<>(contentTypes)) {
 			final ValidationRun run = new ValidationRun(releaseDate, contentType, true);
 			run.setFullSnapshotRelease(true);
-			if (releasePackage == null) {
-				// No external package specified, using default soft link release path.
-				releasePackage = "release";
+			runs.add(run);
+		}
+		final ValidationService service = new ValidationService();
+		final String indexCacheDir = System.getProperty(INDEX_CACHE_DIR_PROPERTY);
+		if (indexCacheDir != null && !indexCacheDir.isEmpty()) {
+			final String indexCacheMaxEntries = System.getProperty(INDEX_CACHE_MAX_ENTRIES_PROPERTY);
+			final int maxEntries = indexCacheMaxEntries != null && !indexCacheMaxEntries.isEmpty() ?
+					Integer.parseInt(indexCacheMaxEntries.trim()) : QueryIndexCache.DEFAULT_MAX_ENTRIES;
+			service.setQueryIndexCache(new QueryIndexCache(new File(indexCacheDir), maxEntries));
+		}
+		final String sepExclusionRoots = System.getProperty(SEP_EXCLUSION_ROOTS_PROPERTY);
+		if (sepExclusionRoots != null && !sepExclusionRoots.isEmpty()) {
+			try {
+				service.setSEPExclusionRoots(Arrays.stream(sepExclusionRoots.split(",")).map(String::trim).filter(root -> !root.isEmpty()).toList());
+			} catch (IllegalArgumentException e) {
+				throw new IllegalArgumentException(String.format("The -D%s property should be a comma separated list of concept ids but is '%s'. %s",
+						SEP_EXCLUSION_ROOTS_PROPERTY, sepExclusionRoots, e.getMessage()), e);
 			}
-			service.loadMRCM(new File(releasePackage), run);
-			service.validateRelease(new File(releasePackage), run);
-			new ReportService(resultDir, releasePackage).generateValidationReports(run);
+		}
+		final String validationThreads = System.getProperty(VALIDATION_THREADS_PROPERTY);
+		if (validationThreads != null && !validationThreads.isEmpty()) {
+			service.setValidationThreads(Integer.parseInt(validationThreads.trim()));
+		}
+		service.loadMRCM(new File(releasePackage), runs);
+		service.validateRelease(new File(releasePackage), runs);
+		final ReportService reportService = new ReportService(resultDir, releasePackage);
+		for (final ValidationRun run : runs) {
+			reportService.generateValidationReports(run);
 		}
 	}
 }
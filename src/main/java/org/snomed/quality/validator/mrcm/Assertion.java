@@ -7,6 +7,7 @@ import java.util.stream.Collectors;
 
 import org.ihtsdo.otf.sqs.service.dto.ConceptResult;
 import org.snomed.quality.validator.mrcm.model.Attribute;
+import org.snomed.quality.validator.mrcm.model.AttributeDescriptor;
 import org.snomed.quality.validator.mrcm.model.ReferenceSetMember;
 import org.springframework.util.CollectionUtils;
 
@@ -27,6 +28,7 @@ public class Assertion {
 
 	private final UUID uuid;
 	private Attribute attribute;
+	private AttributeDescriptor attributeDescriptor;
 	private List<Long> currentViolatedConceptIds;
 	private List<ConceptResult> currentViolatedConcepts;
 	private List<ReferenceSetMember> currentViolatedReferenceSetMembers;
@@ -146,7 +148,7 @@ public class Assertion {
 			return getMessage();
 		}
 		String assertionText = String.format("%s must conform to the MRCM %s",
-				attribute.getAttributeId() + (attribute.getAttributeFsn() == null ? "" : " |" + attribute.getAttributeFsn() + "|"),
+				getAttributeLabel(),
 				validationType.getName().toLowerCase());
 
 		if (ValidationType.ATTRIBUTE_CARDINALITY == validationType) {
@@ -155,7 +157,7 @@ public class Assertion {
 			assertionText += " [" + attribute.getAttributeInGroupCardinality() + "]";
 		} else if (ValidationType.ATTRIBUTE_RANGE == validationType || ValidationType.CONCRETE_ATTRIBUTE_DATA_TYPE == validationType) {
 			assertionText = String.format("The attribute value of %s must conform to the MRCM %s",
-					attribute.getAttributeId() + (attribute.getAttributeFsn() == null ? "" : " |" + attribute.getAttributeFsn() + "|"),
+					getAttributeLabel(),
 					validationType.getName().toLowerCase());
 			if (ValidationType.ATTRIBUTE_RANGE == validationType) {
 				assertionText += " " + attribute.getRangeConstraint();
@@ -171,16 +173,16 @@ public class Assertion {
 		if (ValidationType.ATTRIBUTE_CARDINALITY == validationType) {
 			detail = String.format("The MRCM attribute cardinality is [%s] for %s but found %s",
 					attribute.getAttributeCardinality(),
-					attribute.getAttributeId() + (attribute.getAttributeFsn() == null ? "" : " |" + attribute.getAttributeFsn() + "|"),
+					getAttributeLabel(),
 					getFailureCardinalityMessage(attribute.getAttributeCardinality()));
 		} else if (ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY == validationType) {
 			detail = String.format("The MRCM attribute group cardinality is [%s] for %s but found %s",
 					attribute.getAttributeInGroupCardinality(),
-					attribute.getAttributeId() + (attribute.getAttributeFsn() == null ? "" : " |" + attribute.getAttributeFsn() + "|"),
+					getAttributeLabel(),
 					getFailureCardinalityMessage(attribute.getAttributeInGroupCardinality()));
 		} else if (ValidationType.ATTRIBUTE_RANGE == validationType) {
 			detail = String.format("Attribute %s has value which is not conformed to the MRCM %s",
-					attribute.getAttributeId() + (attribute.getAttributeFsn() == null ? "" : " |" + attribute.getAttributeFsn() + "|"),
+					getAttributeLabel(),
 					validationType.getName().toLowerCase());
 			if (ValidationSubType.ATTRIBUTE_RANGE_INACTIVE_CONCEPT == validationSubType) {
 				detail = "The concept is inactive";
@@ -193,7 +195,7 @@ public class Assertion {
 			}
 		} else if (ValidationType.ATTRIBUTE_DOMAIN == validationType) {
 			detail = String.format(" %s is applied to concepts not conforming to the MRCM %s ",
-					attribute.getAttributeId() + (attribute.getAttributeFsn() == null ? "" : " |" + attribute.getAttributeFsn() + "|"),
+					getAttributeLabel(),
 					validationType.getName().toLowerCase());
 			detail +=  domainConstraint != null ? domainConstraint : " ";
 		} else if (ValidationType.LATERALIZABLE_BODY_STRUCTURE_REFSET_TYPE == validationType && !CollectionUtils.isEmpty(this.currentViolatedConcepts)) {
@@ -237,6 +239,13 @@ public class Assertion {
 		return  "";
 	}
 
+	private String getAttributeLabel() {
+		if (attributeDescriptor != null) {
+			return attributeDescriptor.getLabel();
+		}
+		return attribute.getAttributeId();
+	}
+
 	private char getMinCardinality(String cardinality) {
 		return cardinality.charAt(0);
 	}
@@ -245,6 +254,10 @@ public class Assertion {
 		return cardinality.charAt(cardinality.length() - 1);
 	}
 
+	public ValidationType getValidationType() {
+		return validationType;
+	}
+
 	public FailureType getFailureType() {
 		return this.failureType;
 	}
@@ -253,6 +266,14 @@ public class Assertion {
 		return this.attribute;
 	}
 
+	public AttributeDescriptor getAttributeDescriptor() {
+		return attributeDescriptor;
+	}
+
+	public void setAttributeDescriptor(AttributeDescriptor attributeDescriptor) {
+		this.attributeDescriptor = attributeDescriptor;
+	}
+
 	@Override
 	public String toString() {
 		String base = "Assertion [uuid=" + uuid + ", assertionText=" + getAssertionText() + ",validationType=" + validationType + ",failureType=" + failureType.toString();
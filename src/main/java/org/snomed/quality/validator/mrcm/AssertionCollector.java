@@ -0,0 +1,73 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.ihtsdo.otf.sqs.service.exception.ServiceException;
+import org.snomed.quality.validator.mrcm.model.Attribute;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Holds the assertions of one unit of validation work until they are added to the run.
+ * Units run concurrently, so adding their assertions in the order of the units keeps the reports the same from run to run.
+ * The concepts violating a constraint are held as ids until the units of a validation type have all completed,
+ * so their details are retrieved for all units together, see {@link #resolveViolations(ViolationReporter)}.
+ */
+class AssertionCollector {
+
+	/**
+	 * The ids of the concepts violating a constraint of an attribute.
+	 */
+	record Violations(Attribute attribute, List<Long> conceptIds, ValidationType type, String domainConstraint) {
+	}
+
+	interface ViolationReporter {
+		Assertion report(Violations violations) throws ServiceException;
+	}
+
+	private final List<Assertion> completedAssertions = new ArrayList<>();
+	private final List<Assertion> skippedAssertions = new ArrayList<>();
+	private final List<Violations> violations = new ArrayList<>();
+	// The position in the completed assertions of the assertion of each violations
+	private final IntArrayList violationPositions = new IntArrayList();
+
+	void addCompletedAssertion(Assertion completedAssertion) {
+		completedAssertions.add(completedAssertion);
+	}
+
+	void addSkippedAssertion(Assertion skippedAssertion) {
+		skippedAssertions.add(skippedAssertion);
+	}
+
+	void addViolations(Attribute attribute, List<Long> conceptIds, ValidationType type, String domainConstraint) {
+		violations.add(new Violations(attribute, conceptIds, type, domainConstraint));
+		violationPositions.add(completedAssertions.size());
+		completedAssertions.add(null);
+	}
+
+	void collectViolatedConceptIds(LongSet conceptIds) {
+		for (Violations unitViolations : violations) {
+			unitViolations.conceptIds().forEach(conceptIds::add);
+		}
+	}
+
+	/**
+	 * Replaces the violations with their assertions, in place so the assertions stay in the order they were added.
+	 */
+	void resolveViolations(ViolationReporter reporter) throws ServiceException {
+		for (int i = 0; i < violations.size(); i++) {
+			completedAssertions.set(violationPositions.getInt(i), reporter.report(violations.get(i)));
+		}
+		violations.clear();
+		violationPositions.clear();
+	}
+
+	void addTo(ValidationRun run) {
+		if (!violations.isEmpty()) {
+			throw new IllegalStateException("Violations of " + violations.size() + " constraints have not been reported.");
+		}
+		completedAssertions.forEach(run::addCompletedAssertion);
+		skippedAssertions.forEach(run::addSkippedAssertion);
+	}
+}
@@ -0,0 +1,46 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Checks the values of attributes against the ranges of the MRCM in a single scan of the relationships of a view.
+ * Each range is given as the set of concepts allowed as destination, so evaluating a range constraint is done once however many domains use it.
+ * A concept fails a check when it is in the domain and has a value of the attribute outside of the range, the same as ECL
+ * {@code domain : attribute != (range)}. Concrete values are never in a range of concepts.
+ */
+public class AttributeRangeEngine extends RelationshipScanEngine<AttributeRangeEngine.Check> {
+
+	public AttributeRangeEngine(RelationshipTable relationships) {
+		super(relationships);
+	}
+
+	/**
+	 * Registers a check of the values of the attribute on concepts in the domain. Returns the index of its result.
+	 */
+	public int addRangeCheck(ConceptSet domain, long attributeTypeId, ConceptSet range) {
+		return addCheck(new Check(domain.getOrdinals(), range.getOrdinals()), attributeTypeId);
+	}
+
+	@Override
+	protected void visitConcept(int ordinal, int start, int end, RoaringBitmap[] failures) {
+		ConceptDictionary dictionary = relationships.getDictionary();
+		for (int row = start; row < end; row++) {
+			IntArrayList typeChecks = getChecksOfType(relationships.getTypeId(row));
+			if (typeChecks == null) {
+				continue;
+			}
+			long value = relationships.getValue(row);
+			int valueOrdinal = RelationshipTable.isConcreteValue(value) ? ConceptDictionary.NOT_FOUND : dictionary.getOrdinal(value);
+			for (int i = 0; i < typeChecks.size(); i++) {
+				Check check = getCheck(typeChecks.getInt(i));
+				if (check.domain().contains(ordinal) && (valueOrdinal == ConceptDictionary.NOT_FOUND || !check.range().contains(valueOrdinal))) {
+					failures[typeChecks.getInt(i)].add(ordinal);
+				}
+			}
+		}
+	}
+
+	record Check(RoaringBitmap domain, RoaringBitmap range) {
+	}
+}
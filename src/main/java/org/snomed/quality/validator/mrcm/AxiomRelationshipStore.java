@@ -0,0 +1,103 @@
+package org.snomed.quality.validator.mrcm;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Stated relationships derived from OWL axioms, held in columns of primitives.
+ * Axiom fragments don't have component identifiers of their own, a readable composite identifier is built only when asked for.
+ * Fragments with a concrete value keep it in RF2 form, e.g. {@code #10}, and have no destination.
+ * Not thread safe, rows are added by a single writer.
+ */
+public class AxiomRelationshipStore {
+
+	private static final int INITIAL_CAPACITY = 1024;
+
+	private final List<String> axiomIds = new ArrayList<>();
+	private long[] sourceIds = new long[INITIAL_CAPACITY];
+	private long[] typeIds = new long[INITIAL_CAPACITY];
+	private long[] destinationIds = new long[INITIAL_CAPACITY];
+	private int[] groups = new int[INITIAL_CAPACITY];
+	private int[] axiomOrdinals = new int[INITIAL_CAPACITY];
+	private String[] concreteValues = new String[INITIAL_CAPACITY];
+	private int size;
+
+	/**
+	 * Registers an axiom whose fragments are about to be added. Returns the ordinal to add them with.
+	 */
+	public int addAxiom(String axiomId) {
+		axiomIds.add(axiomId);
+		return axiomIds.size() - 1;
+	}
+
+	public int add(int axiomOrdinal, long sourceId, long typeId, long destinationId, int group) {
+		return add(axiomOrdinal, sourceId, typeId, destinationId, null, group);
+	}
+
+	public int addConcrete(int axiomOrdinal, long sourceId, long typeId, String concreteValue, int group) {
+		return add(axiomOrdinal, sourceId, typeId, -1, concreteValue, group);
+	}
+
+	private int add(int axiomOrdinal, long sourceId, long typeId, long destinationId, String concreteValue, int group) {
+		if (size == sourceIds.length) {
+			int capacity = size * 2;
+			sourceIds = Arrays.copyOf(sourceIds, capacity);
+			typeIds = Arrays.copyOf(typeIds, capacity);
+			destinationIds = Arrays.copyOf(destinationIds, capacity);
+			groups = Arrays.copyOf(groups, capacity);
+			axiomOrdinals = Arrays.copyOf(axiomOrdinals, capacity);
+			concreteValues = Arrays.copyOf(concreteValues, capacity);
+		}
+		sourceIds[size] = sourceId;
+		typeIds[size] = typeId;
+		destinationIds[size] = destinationId;
+		groups[size] = group;
+		axiomOrdinals[size] = axiomOrdinal;
+		concreteValues[size] = concreteValue;
+		return size++;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public long getSourceId(int row) {
+		return sourceIds[row];
+	}
+
+	public long getTypeId(int row) {
+		return typeIds[row];
+	}
+
+	public long getDestinationId(int row) {
+		return destinationIds[row];
+	}
+
+	public boolean isConcrete(int row) {
+		return concreteValues[row] != null;
+	}
+
+	/**
+	 * The concrete value of the fragment, or null if it has a destination concept.
+	 */
+	public String getConcreteValue(int row) {
+		return concreteValues[row];
+	}
+
+	public int getGroup(int row) {
+		return groups[row];
+	}
+
+	public String getAxiomId(int row) {
+		return axiomIds.get(axiomOrdinals[row]);
+	}
+
+	/**
+	 * Identifies the fragment by its axiom, group, type and destination or value, e.g. for reporting.
+	 */
+	public String getCompositeIdentifier(int row) {
+		String target = isConcrete(row) ? "/Value_" + concreteValues[row] : "/Destination_" + destinationIds[row];
+		return getAxiomId(row) + "/Group_" + groups[row] + "/Type_" + typeIds[row] + target;
+	}
+}
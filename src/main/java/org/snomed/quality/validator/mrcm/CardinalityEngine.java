@@ -0,0 +1,167 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import org.roaringbitmap.RoaringBitmap;
+
+/**
+ * Checks attribute and attribute in group cardinalities of the MRCM against the relationships of a view in a single scan.
+ * All checks are registered first, then every concept's relationships are visited once, in parallel over ranges of concepts,
+ * and counted per attribute type overall and per group for the checks of its domains.
+ * <p>
+ * Counting follows the ECL queries this replaces: a concept is only checked for an attribute it has, values are counted once per group,
+ * and each ungrouped relationship forms a group of its own.
+ */
+public class CardinalityEngine extends RelationshipScanEngine<CardinalityEngine.Check> {
+
+	public CardinalityEngine(RelationshipTable relationships) {
+		super(relationships);
+	}
+
+	/**
+	 * Registers a check of the number of values of the attribute on concepts in the domain. Returns the index of its result.
+	 */
+	public int addAttributeCardinalityCheck(ConceptSet domain, long attributeTypeId, String cardinality) {
+		return addCheck(new Check(domain.getOrdinals(), Cardinality.parse(cardinality), null), attributeTypeId);
+	}
+
+	/**
+	 * Registers a check of the number of groups containing the attribute, and of the number of values of the attribute in each of those groups.
+	 * Returns the index of its result.
+	 */
+	public int addAttributeInGroupCardinalityCheck(ConceptSet domain, long attributeTypeId, String cardinality, String inGroupCardinality) {
+		return addCheck(new Check(domain.getOrdinals(), Cardinality.parse(cardinality), Cardinality.parse(inGroupCardinality)), attributeTypeId);
+	}
+
+	@Override
+	protected void visitConcept(int ordinal, int start, int end, RoaringBitmap[] failures) {
+		for (int row = start; row < end; row++) {
+			long typeId = relationships.getTypeId(row);
+			IntArrayList typeChecks = getChecksOfType(typeId);
+			if (typeChecks == null || hasType(start, row, typeId)) {
+				// No checks on this type, or already counted from an earlier row of the concept
+				continue;
+			}
+			AttributeCounts counts = null;
+			for (int i = 0; i < typeChecks.size(); i++) {
+				Check check = getCheck(typeChecks.getInt(i));
+				if (!check.domain().contains(ordinal)) {
+					continue;
+				}
+				if (counts == null) {
+					counts = count(row, end, typeId);
+				}
+				if (!check.accepts(counts)) {
+					failures[typeChecks.getInt(i)].add(ordinal);
+				}
+			}
+		}
+	}
+
+	private boolean hasType(int start, int end, long typeId) {
+		for (int row = start; row < end; row++) {
+			if (relationships.getTypeId(row) == typeId) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	/**
+	 * Counts the values of the type in the concept's rows from the first row having the type.
+	 */
+	private AttributeCounts count(int firstRow, int end, long typeId) {
+		int values = 0;
+		int groups = 0;
+		int minInGroup = Integer.MAX_VALUE;
+		int maxInGroup = 0;
+		for (int row = firstRow; row < end; row++) {
+			if (relationships.getTypeId(row) != typeId || isRepeatedValue(firstRow, row, typeId, false)) {
+				continue;
+			}
+			values++;
+		}
+		for (int row = firstRow; row < end; row++) {
+			if (relationships.getTypeId(row) != typeId) {
+				continue;
+			}
+			int group = relationships.getGroup(row);
+			if (group == 0) {
+				// Each ungrouped relationship is a group of its own
+				if (!isRepeatedValue(firstRow, row, typeId, true)) {
+					groups++;
+					minInGroup = Math.min(minInGroup, 1);
+					maxInGroup = Math.max(maxInGroup, 1);
+				}
+			} else if (!isRepeatedGroup(firstRow, row, typeId, group)) {
+				int inGroup = countInGroup(row, end, typeId, group);
+				groups++;
+				minInGroup = Math.min(minInGroup, inGroup);
+				maxInGroup = Math.max(maxInGroup, inGroup);
+			}
+		}
+		return new AttributeCounts(values, groups, minInGroup, maxInGroup);
+	}
+
+	private int countInGroup(int firstRow, int end, long typeId, int group) {
+		int count = 0;
+		for (int row = firstRow; row < end; row++) {
+			if (relationships.getTypeId(row) == typeId && relationships.getGroup(row) == group && !isRepeatedValue(firstRow, row, typeId, true)) {
+				count++;
+			}
+		}
+		return count;
+	}
+
+	/**
+	 * Returns true when an earlier row of the type has the same value, in any group or only in the same group.
+	 */
+	private boolean isRepeatedValue(int firstRow, int row, long typeId, boolean sameGroup) {
+		for (int earlier = firstRow; earlier < row; earlier++) {
+			if (relationships.getTypeId(earlier) == typeId && relationships.getValue(earlier) == relationships.getValue(row)
+					&& (!sameGroup || relationships.getGroup(earlier) == relationships.getGroup(row))) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private boolean isRepeatedGroup(int firstRow, int row, long typeId, int group) {
+		for (int earlier = firstRow; earlier < row; earlier++) {
+			if (relationships.getTypeId(earlier) == typeId && relationships.getGroup(earlier) == group) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	private record AttributeCounts(int values, int groups, int minInGroup, int maxInGroup) {
+	}
+
+	record Check(RoaringBitmap domain, Cardinality cardinality, Cardinality inGroupCardinality) {
+
+		boolean accepts(AttributeCounts counts) {
+			if (inGroupCardinality == null) {
+				return cardinality.accepts(counts.values());
+			}
+			return cardinality.accepts(counts.groups()) && inGroupCardinality.accepts(counts.minInGroup()) && inGroupCardinality.accepts(counts.maxInGroup());
+		}
+	}
+
+	record Cardinality(int min, int max) {
+
+		private static final String MANY = "*";
+
+		static Cardinality parse(String cardinality) {
+			String[] bounds = cardinality.trim().split("\\.\\.");
+			if (bounds.length != 2) {
+				throw new IllegalArgumentException("Invalid cardinality " + cardinality);
+			}
+			int max = MANY.equals(bounds[1].trim()) ? Integer.MAX_VALUE : Integer.parseInt(bounds[1].trim());
+			return new Cardinality(Integer.parseInt(bounds[0].trim()), max);
+		}
+
+		boolean accepts(int count) {
+			return count >= min && count <= max;
+		}
+	}
+}
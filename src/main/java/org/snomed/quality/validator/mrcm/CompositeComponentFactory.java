@@ -0,0 +1,80 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.ihtsdo.otf.snomedboot.factory.ComponentFactory;
+import org.ihtsdo.otf.snomedboot.factory.ImpotentComponentFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Fans each RF2 row parsed by the importer out to every registered component factory,
+ * so several consumers can share a single pass over the release files.
+ * Delegates are responsible for their own thread safety, exactly as when they are given to the importer directly.
+ */
+public class CompositeComponentFactory extends ImpotentComponentFactory {
+
+	private final List<ComponentFactory> componentFactories;
+
+	public CompositeComponentFactory(ComponentFactory... componentFactories) {
+		this(Arrays.asList(componentFactories));
+	}
+
+	public CompositeComponentFactory(List<? extends ComponentFactory> componentFactories) {
+		this.componentFactories = Collections.unmodifiableList(new ArrayList<>(componentFactories));
+	}
+
+	@Override
+	public void loadingComponentsStarting() {
+		for (ComponentFactory componentFactory : componentFactories) {
+			componentFactory.loadingComponentsStarting();
+		}
+	}
+
+	@Override
+	public void loadingComponentsCompleted() {
+		for (ComponentFactory componentFactory : componentFactories) {
+			componentFactory.loadingComponentsCompleted();
+		}
+	}
+
+	@Override
+	public void newConceptState(String conceptId, String effectiveTime, String active, String moduleId, String definitionStatusId) {
+		for (ComponentFactory componentFactory : componentFactories) {
+			componentFactory.newConceptState(conceptId, effectiveTime, active, moduleId, definitionStatusId);
+		}
+	}
+
+	@Override
+	public void newRelationshipState(String id, String effectiveTime, String active, String moduleId, String sourceId, String destinationId,
+			String relationshipGroup, String typeId, String characteristicTypeId, String modifierId) {
+		for (ComponentFactory componentFactory : componentFactories) {
+			componentFactory.newRelationshipState(id, effectiveTime, active, moduleId, sourceId, destinationId, relationshipGroup, typeId, characteristicTypeId, modifierId);
+		}
+	}
+
+	@Override
+	public void newConcreteRelationshipState(String id, String effectiveTime, String active, String moduleId, String sourceId, String value,
+			String relationshipGroup, String typeId, String characteristicTypeId, String modifierId) {
+		for (ComponentFactory componentFactory : componentFactories) {
+			componentFactory.newConcreteRelationshipState(id, effectiveTime, active, moduleId, sourceId, value, relationshipGroup, typeId, characteristicTypeId, modifierId);
+		}
+	}
+
+	@Override
+	public void newDescriptionState(String id, String effectiveTime, String active, String moduleId, String conceptId, String languageCode,
+			String typeId, String term, String caseSignificanceId) {
+		for (ComponentFactory componentFactory : componentFactories) {
+			componentFactory.newDescriptionState(id, effectiveTime, active, moduleId, conceptId, languageCode, typeId, term, caseSignificanceId);
+		}
+	}
+
+	@Override
+	public void newReferenceSetMemberState(String[] fieldNames, String id, String effectiveTime, String active, String moduleId, String refsetId,
+			String referencedComponentId, String... otherValues) {
+		for (ComponentFactory componentFactory : componentFactories) {
+			componentFactory.newReferenceSetMemberState(fieldNames, id, effectiveTime, active, moduleId, refsetId, referencedComponentId, otherValues);
+		}
+	}
+}
@@ -0,0 +1,77 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.ihtsdo.otf.snomedboot.factory.ImpotentComponentFactory;
+
+import java.util.Arrays;
+
+/**
+ * Maps the concept ids of a release to dense ordinals, 0 to size - 1, so sets of concepts can be held as bitmaps.
+ * Ordinals follow the order of the concept ids.
+ */
+public class ConceptDictionary {
+
+	public static final int NOT_FOUND = -1;
+
+	private final long[] conceptIds;
+
+	ConceptDictionary(long[] sortedConceptIds) {
+		this.conceptIds = sortedConceptIds;
+	}
+
+	public static ConceptDictionary of(long... conceptIds) {
+		long[] sorted = conceptIds.clone();
+		Arrays.sort(sorted);
+		return new ConceptDictionary(distinct(sorted));
+	}
+
+	/**
+	 * Returns the ordinal of the concept or {@link #NOT_FOUND} if the concept is not part of the release.
+	 */
+	public int getOrdinal(long conceptId) {
+		int ordinal = Arrays.binarySearch(conceptIds, conceptId);
+		return ordinal >= 0 ? ordinal : NOT_FOUND;
+	}
+
+	public long getConceptId(int ordinal) {
+		return conceptIds[ordinal];
+	}
+
+	public int size() {
+		return conceptIds.length;
+	}
+
+	private static long[] distinct(long[] sorted) {
+		int size = 0;
+		for (int i = 0; i < sorted.length; i++) {
+			if (i == 0 || sorted[i] != sorted[size - 1]) {
+				sorted[size++] = sorted[i];
+			}
+		}
+		return size == sorted.length ? sorted : Arrays.copyOf(sorted, size);
+	}
+
+	/**
+	 * Collects the concept ids while the release is loaded. Concepts may be delivered from several threads.
+	 */
+	public static class Builder extends ImpotentComponentFactory {
+
+		private final LongArrayList conceptIds = new LongArrayList();
+
+		@Override
+		public void newConceptState(String conceptId, String effectiveTime, String active, String moduleId, String definitionStatusId) {
+			long id = Long.parseLong(conceptId);
+			synchronized (conceptIds) {
+				conceptIds.add(id);
+			}
+		}
+
+		public ConceptDictionary build() {
+			synchronized (conceptIds) {
+				long[] sorted = conceptIds.toLongArray();
+				Arrays.sort(sorted);
+				return new ConceptDictionary(distinct(sorted));
+			}
+		}
+	}
+}
@@ -0,0 +1,225 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.ihtsdo.otf.snomedboot.domain.ConceptConstants;
+import org.ihtsdo.otf.snomedboot.factory.ImpotentComponentFactory;
+import org.roaringbitmap.RoaringBitmap;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * The is-a hierarchy of one view of the release, held as compressed sparse rows of {@link ConceptDictionary} ordinals.
+ * Parents and children of a concept are contiguous runs of an int array, so closure queries are a walk over primitive arrays
+ * with a bitset of the concepts already visited.
+ */
+public class ConceptHierarchy {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConceptHierarchy.class);
+
+	private final ConceptDictionary dictionary;
+	private final int[] parentOffsets;
+	private final int[] parents;
+	private final int[] childOffsets;
+	private final int[] children;
+
+	private ConceptHierarchy(ConceptDictionary dictionary, int[] parentOffsets, int[] parents, int[] childOffsets, int[] children) {
+		this.dictionary = dictionary;
+		this.parentOffsets = parentOffsets;
+		this.parents = parents;
+		this.childOffsets = childOffsets;
+		this.children = children;
+	}
+
+	/**
+	 * Builds the hierarchy of a view on first use.
+	 */
+	@FunctionalInterface
+	public interface Loader {
+		ConceptHierarchy load();
+	}
+
+	/**
+	 * ECL {@code << concepts}, the concepts and all of their descendants.
+	 */
+	public ConceptSet descendantsOrSelf(ConceptSet concepts) {
+		BitSet visited = new BitSet(dictionary.size());
+		IntArrayList queue = new IntArrayList();
+		concepts.getOrdinals().forEach((int ordinal) -> {
+			visited.set(ordinal);
+			queue.add(ordinal);
+		});
+		for (int next = 0; next < queue.size(); next++) {
+			int ordinal = queue.getInt(next);
+			for (int i = childOffsets[ordinal]; i < childOffsets[ordinal + 1]; i++) {
+				int child = children[i];
+				if (!visited.get(child)) {
+					visited.set(child);
+					queue.add(child);
+				}
+			}
+		}
+		return toConceptSet(visited);
+	}
+
+	/**
+	 * ECL {@code <<! concepts}, the concepts and their direct children.
+	 */
+	public ConceptSet childrenOrSelf(ConceptSet concepts) {
+		BitSet result = new BitSet(dictionary.size());
+		concepts.getOrdinals().forEach((int ordinal) -> {
+			result.set(ordinal);
+			for (int i = childOffsets[ordinal]; i < childOffsets[ordinal + 1]; i++) {
+				result.set(children[i]);
+			}
+		});
+		return toConceptSet(result);
+	}
+
+	private ConceptSet toConceptSet(BitSet ordinals) {
+		RoaringBitmap bitmap = RoaringBitmap.bitmapOf(ordinals.stream().toArray());
+		bitmap.runOptimize();
+		return new ConceptSet(dictionary, bitmap);
+	}
+
+	static class Builder {
+
+		private final ConceptDictionary dictionary;
+		private final IntArrayList childOrdinals = new IntArrayList();
+		private final IntArrayList parentOrdinals = new IntArrayList();
+		private int edgesOfUnknownConcepts;
+
+		Builder(ConceptDictionary dictionary) {
+			this.dictionary = dictionary;
+		}
+
+		void addParent(long conceptId, long parentId) {
+			int child = dictionary.getOrdinal(conceptId);
+			int parent = dictionary.getOrdinal(parentId);
+			if (child == ConceptDictionary.NOT_FOUND || parent == ConceptDictionary.NOT_FOUND) {
+				// A concept without a concept row in the release is left out, as it is of the ECL results
+				edgesOfUnknownConcepts++;
+				return;
+			}
+			childOrdinals.add(child);
+			parentOrdinals.add(parent);
+		}
+
+		ConceptHierarchy build() {
+			if (edgesOfUnknownConcepts > 0) {
+				LOGGER.warn("{} is-a relationships of concepts without a concept row in the release are left out of the hierarchy", edgesOfUnknownConcepts);
+			}
+			int size = dictionary.size();
+			int[] parentOffsets = new int[size + 1];
+			int[] parents = new int[childOrdinals.size()];
+			int[] childOffsets = new int[size + 1];
+			int[] children = new int[childOrdinals.size()];
+			compress(childOrdinals, parentOrdinals, parentOffsets, parents);
+			compress(parentOrdinals, childOrdinals, childOffsets, children);
+			return new ConceptHierarchy(dictionary, parentOffsets, parents, childOffsets, children);
+		}
+
+		/**
+		 * Counting sort of the edges by their source ordinal into offsets and targets.
+		 */
+		private static void compress(IntArrayList sources, IntArrayList targets, int[] offsets, int[] sortedTargets) {
+			for (int i = 0; i < sources.size(); i++) {
+				offsets[sources.getInt(i) + 1]++;
+			}
+			for (int i = 1; i < offsets.length; i++) {
+				offsets[i] += offsets[i - 1];
+			}
+			int[] positions = Arrays.copyOf(offsets, offsets.length - 1);
+			for (int i = 0; i < sources.size(); i++) {
+				sortedTargets[positions[sources.getInt(i)]++] = targets.getInt(i);
+			}
+		}
+	}
+
+	/**
+	 * Collects the active is-a relationships of one view while the release is loaded, the inferred or stated relationships
+	 * and, for the stated view, those converted from OWL axioms. The hierarchy is built once the dictionary of the release is known.
+	 */
+	public static class ReleaseBuilder extends ImpotentComponentFactory {
+
+		private static final int FILE_VERSION = 1;
+
+		private final String characteristicTypeId;
+		private final LongArrayList conceptIds = new LongArrayList();
+		private final LongArrayList parentIds = new LongArrayList();
+
+		public ReleaseBuilder(ContentType contentType) {
+			this.characteristicTypeId = contentType == ContentType.STATED ? ConceptConstants.STATED_RELATIONSHIP : ConceptConstants.INFERRED_RELATIONSHIP;
+		}
+
+		@Override
+		public void newRelationshipState(String id, String effectiveTime, String active, String moduleId, String sourceId, String destinationId,
+				String relationshipGroup, String typeId, String characteristicTypeId, String modifierId) {
+			if ("1".equals(active) && this.characteristicTypeId.equals(characteristicTypeId) && ConceptConstants.isA.equals(typeId)) {
+				addParent(Long.parseLong(sourceId), Long.parseLong(destinationId));
+			}
+		}
+
+		/**
+		 * Adds the stated is-a relationships that were converted from OWL axioms, they don't pass through the component factories.
+		 */
+		public void addAxiomRelationships(AxiomRelationshipStore axiomRelationships) {
+			long isA = Long.parseLong(ConceptConstants.isA);
+			for (int row = 0; row < axiomRelationships.size(); row++) {
+				if (!axiomRelationships.isConcrete(row) && axiomRelationships.getTypeId(row) == isA) {
+					addParent(axiomRelationships.getSourceId(row), axiomRelationships.getDestinationId(row));
+				}
+			}
+		}
+
+		public synchronized void addParent(long conceptId, long parentId) {
+			conceptIds.add(conceptId);
+			parentIds.add(parentId);
+		}
+
+		/**
+		 * Saves the is-a relationships so the hierarchy can be rebuilt without loading the release again. The file is replaced atomically.
+		 */
+		public synchronized void write(File file) throws IOException {
+			File temporaryFile = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp").toFile();
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+				out.writeInt(FILE_VERSION);
+				out.writeInt(conceptIds.size());
+				for (int i = 0; i < conceptIds.size(); i++) {
+					out.writeLong(conceptIds.getLong(i));
+					out.writeLong(parentIds.getLong(i));
+				}
+			}
+			Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		public synchronized void read(File file) throws IOException {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+				int version = in.readInt();
+				if (version != FILE_VERSION) {
+					throw new IOException("Unsupported hierarchy version " + version + " in " + file);
+				}
+				int rows = in.readInt();
+				for (int i = 0; i < rows; i++) {
+					addParent(in.readLong(), in.readLong());
+				}
+			}
+		}
+
+		public synchronized ConceptHierarchy build(ConceptDictionary dictionary) {
+			Builder builder = new Builder(dictionary);
+			for (int i = 0; i < conceptIds.size(); i++) {
+				builder.addParent(conceptIds.getLong(i), parentIds.getLong(i));
+			}
+			ConceptHierarchy hierarchy = builder.build();
+			LOGGER.info("Built hierarchy of {} concepts with {} is-a relationships", dictionary.size(), hierarchy.parents.length);
+			return hierarchy;
+		}
+	}
+}
@@ -0,0 +1,187 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+import it.unimi.dsi.fastutil.longs.LongSet;
+import org.ihtsdo.otf.sqs.service.SnomedQueryService;
+import org.ihtsdo.otf.sqs.service.dto.ConceptResult;
+import org.ihtsdo.otf.sqs.service.exception.ConceptNotFoundException;
+import org.ihtsdo.otf.sqs.service.exception.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Looks up the details (module, effective time, active and FSN) of the concepts reported by a validation run.
+ * Ids are collected into a set so each concept is retrieved once. Large sets are retrieved in one pass over the pages of the store,
+ * small ones concept by concept. Results, including concepts that were not found, are kept for the rest of the run.
+ * Safe to use from several threads: a concept requested by several threads at once is loaded by the first and awaited by the others.
+ */
+public class ConceptHydrator {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ConceptHydrator.class);
+
+	// From this number of concepts on, one pass over all pages of the store is cheaper than looking each concept up
+	private static final int PAGED_RETRIEVAL_THRESHOLD = 1000;
+	private static final int PAGE_SIZE = 10000;
+
+	private final SnomedQueryService queryService;
+	private final Long2ObjectOpenHashMap<ConceptResult> concepts = new Long2ObjectOpenHashMap<>();
+	private final LongOpenHashSet notFound = new LongOpenHashSet();
+	// Concepts being retrieved by another call, completed with null if the concept doesn't exist
+	private final Long2ObjectOpenHashMap<CompletableFuture<ConceptResult>> loading = new Long2ObjectOpenHashMap<>();
+
+	public ConceptHydrator(SnomedQueryService queryService) {
+		this.queryService = queryService;
+	}
+
+	/**
+	 * Returns the concepts with the given ids. Concepts that don't exist are missing from the map.
+	 */
+	public Long2ObjectMap<ConceptResult> hydrate(Collection<Long> conceptIds) throws ServiceException {
+		LongOpenHashSet requested = new LongOpenHashSet(conceptIds.size());
+		for (Long conceptId : conceptIds) {
+			requested.add(conceptId.longValue());
+		}
+		return hydrate(requested);
+	}
+
+	public Long2ObjectMap<ConceptResult> hydrate(LongSet conceptIds) throws ServiceException {
+		return hydrate(conceptIds, false);
+	}
+
+	/**
+	 * Returns the concepts with the given ids, retrieving those not loaded yet in a single pass over the pages of the store however few they are.
+	 * For sets of concepts known upfront, such as all the concepts referred to by the MRCM ranges.
+	 */
+	public Long2ObjectMap<ConceptResult> hydrateInOnePass(LongSet conceptIds) throws ServiceException {
+		return hydrate(conceptIds, true);
+	}
+
+	private Long2ObjectMap<ConceptResult> hydrate(LongSet conceptIds, boolean paged) throws ServiceException {
+		Long2ObjectOpenHashMap<ConceptResult> results = new Long2ObjectOpenHashMap<>(conceptIds.size());
+		Long2ObjectOpenHashMap<CompletableFuture<ConceptResult>> toRetrieve = new Long2ObjectOpenHashMap<>();
+		Long2ObjectOpenHashMap<CompletableFuture<ConceptResult>> toAwait = new Long2ObjectOpenHashMap<>();
+		synchronized (this) {
+			conceptIds.forEach(conceptId -> {
+				ConceptResult concept = concepts.get(conceptId);
+				if (concept != null) {
+					results.put(conceptId, concept);
+				} else if (!notFound.contains(conceptId)) {
+					CompletableFuture<ConceptResult> future = loading.get(conceptId);
+					if (future == null) {
+						future = new CompletableFuture<>();
+						loading.put(conceptId, future);
+						toRetrieve.put(conceptId, future);
+					} else {
+						toAwait.put(conceptId, future);
+					}
+				}
+			});
+		}
+		if (!toRetrieve.isEmpty()) {
+			results.putAll(retrieveAndComplete(toRetrieve, paged || toRetrieve.size() >= PAGED_RETRIEVAL_THRESHOLD));
+		}
+		// Every call completes the concepts it retrieves before waiting for those of other calls, so two calls can't wait for each other
+		for (Long2ObjectMap.Entry<CompletableFuture<ConceptResult>> entry : toAwait.long2ObjectEntrySet()) {
+			ConceptResult concept = await(entry.getValue());
+			if (concept != null) {
+				results.put(entry.getLongKey(), concept);
+			}
+		}
+		return results;
+	}
+
+	/**
+	 * Retrieves the concepts this call is loading, then records and publishes them to any other call waiting for them.
+	 */
+	private Long2ObjectOpenHashMap<ConceptResult> retrieveAndComplete(Long2ObjectOpenHashMap<CompletableFuture<ConceptResult>> toRetrieve, boolean paged)
+			throws ServiceException {
+		Long2ObjectOpenHashMap<ConceptResult> retrieved;
+		try {
+			retrieved = paged ? retrievePaged(toRetrieve.keySet()) : retrieveEach(toRetrieve.keySet());
+		} catch (ServiceException | RuntimeException e) {
+			synchronized (this) {
+				toRetrieve.keySet().forEach(loading::remove);
+			}
+			toRetrieve.values().forEach(future -> future.completeExceptionally(e));
+			throw e;
+		}
+		LongArrayList missing = new LongArrayList();
+		synchronized (this) {
+			toRetrieve.keySet().forEach(conceptId -> {
+				loading.remove(conceptId);
+				if (!retrieved.containsKey(conceptId)) {
+					missing.add(conceptId);
+				}
+			});
+			concepts.putAll(retrieved);
+			notFound.addAll(missing);
+		}
+		toRetrieve.long2ObjectEntrySet().forEach(entry -> entry.getValue().complete(retrieved.get(entry.getLongKey())));
+		if (!missing.isEmpty()) {
+			LOGGER.debug("{} concepts not found, first {}", missing.size(), missing.getLong(0));
+		}
+		return retrieved;
+	}
+
+	private Long2ObjectOpenHashMap<ConceptResult> retrievePaged(LongSet conceptIds) throws ServiceException {
+		Long2ObjectOpenHashMap<ConceptResult> retrieved = new Long2ObjectOpenHashMap<>(conceptIds.size());
+		for (int offset = 0; retrieved.size() < conceptIds.size(); offset += PAGE_SIZE) {
+			List<ConceptResult> page = queryService.listAll(offset, PAGE_SIZE).items();
+			for (ConceptResult concept : page) {
+				long conceptId = Long.parseLong(concept.getId());
+				if (conceptIds.contains(conceptId)) {
+					retrieved.put(conceptId, concept);
+				}
+			}
+			if (page.size() < PAGE_SIZE) {
+				break;
+			}
+		}
+		return retrieved;
+	}
+
+	private Long2ObjectOpenHashMap<ConceptResult> retrieveEach(LongSet conceptIds) throws ServiceException {
+		Long2ObjectOpenHashMap<ConceptResult> retrieved = new Long2ObjectOpenHashMap<>(conceptIds.size());
+		for (long conceptId : conceptIds) {
+			try {
+				retrieved.put(conceptId, queryService.retrieveConcept(Long.toString(conceptId)));
+			} catch (ConceptNotFoundException e) {
+				// Recorded as not found
+			}
+		}
+		return retrieved;
+	}
+
+	private static ConceptResult await(CompletableFuture<ConceptResult> future) throws ServiceException {
+		try {
+			return future.join();
+		} catch (CompletionException e) {
+			if (e.getCause() instanceof ServiceException serviceException) {
+				throw serviceException;
+			} else if (e.getCause() instanceof RuntimeException runtimeException) {
+				throw runtimeException;
+			}
+			throw e;
+		}
+	}
+
+	/**
+	 * Returns the concept with the given id, or null if it doesn't exist.
+	 */
+	public ConceptResult getConceptOrNull(String conceptId) throws ServiceException {
+		long id = Long.parseLong(conceptId);
+		return hydrate(LongSet.of(id)).get(id);
+	}
+
+	public synchronized int getHydratedCount() {
+		return concepts.size();
+	}
+}
@@ -0,0 +1,53 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
+
+import java.util.Collection;
+
+/**
+ * Set of SCTIDs held as primitive longs that can be probed directly with the id text of an RF2 field,
+ * so filtering rows on the load hot path doesn't parse into a boxed Long.
+ */
+public class ConceptIdSet {
+
+	// SCTIDs have at most 18 digits, so they never overflow a long
+	private static final int MAX_SCTID_LENGTH = 18;
+
+	private final LongOpenHashSet ids;
+
+	public ConceptIdSet(Collection<Long> ids) {
+		this.ids = new LongOpenHashSet(ids);
+	}
+
+	public boolean contains(long id) {
+		return ids.contains(id);
+	}
+
+	public boolean contains(CharSequence id) {
+		long value = parse(id);
+		return value != -1 && ids.contains(value);
+	}
+
+	public int size() {
+		return ids.size();
+	}
+
+	/**
+	 * Parses an SCTID without allocating. Returns -1 when the text is not a valid SCTID.
+	 */
+	public static long parse(CharSequence id) {
+		int length = id.length();
+		if (length == 0 || length > MAX_SCTID_LENGTH) {
+			return -1;
+		}
+		long value = 0;
+		for (int i = 0; i < length; i++) {
+			int digit = id.charAt(i) - '0';
+			if (digit < 0 || digit > 9) {
+				return -1;
+			}
+			value = value * 10 + digit;
+		}
+		return value;
+	}
+}
@@ -0,0 +1,121 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import it.unimi.dsi.fastutil.longs.LongList;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.Collection;
+
+/**
+ * An immutable set of concepts, held as a compressed bitmap of their {@link ConceptDictionary} ordinals.
+ * Set operations are done on the bitmaps, concept ids are only produced when the set is reported.
+ */
+public final class ConceptSet {
+
+	private final ConceptDictionary dictionary;
+	private final RoaringBitmap ordinals;
+
+	ConceptSet(ConceptDictionary dictionary, RoaringBitmap ordinals) {
+		this.dictionary = dictionary;
+		this.ordinals = ordinals;
+	}
+
+	public static ConceptSet empty(ConceptDictionary dictionary) {
+		return new ConceptSet(dictionary, new RoaringBitmap());
+	}
+
+	/**
+	 * @throws IllegalArgumentException if a concept is not in the dictionary
+	 */
+	public static ConceptSet of(ConceptDictionary dictionary, Collection<Long> conceptIds) {
+		RoaringBitmap ordinals = new RoaringBitmap();
+		for (Long conceptId : conceptIds) {
+			int ordinal = dictionary.getOrdinal(conceptId);
+			if (ordinal == ConceptDictionary.NOT_FOUND) {
+				throw new IllegalArgumentException("Concept " + conceptId + " is not part of the loaded release.");
+			}
+			ordinals.add(ordinal);
+		}
+		ordinals.runOptimize();
+		return new ConceptSet(dictionary, ordinals);
+	}
+
+	/**
+	 * Concepts that are not in the dictionary are left out, they are not part of the release so are never members of its sets.
+	 */
+	public static ConceptSet ofKnownConcepts(ConceptDictionary dictionary, Collection<Long> conceptIds) {
+		RoaringBitmap ordinals = new RoaringBitmap();
+		for (Long conceptId : conceptIds) {
+			int ordinal = dictionary.getOrdinal(conceptId);
+			if (ordinal != ConceptDictionary.NOT_FOUND) {
+				ordinals.add(ordinal);
+			}
+		}
+		ordinals.runOptimize();
+		return new ConceptSet(dictionary, ordinals);
+	}
+
+	/**
+	 * @see #ofKnownConcepts(ConceptDictionary, Collection)
+	 */
+	public static ConceptSet ofKnownConcepts(ConceptDictionary dictionary, long... conceptIds) {
+		RoaringBitmap ordinals = new RoaringBitmap();
+		for (long conceptId : conceptIds) {
+			int ordinal = dictionary.getOrdinal(conceptId);
+			if (ordinal != ConceptDictionary.NOT_FOUND) {
+				ordinals.add(ordinal);
+			}
+		}
+		ordinals.runOptimize();
+		return new ConceptSet(dictionary, ordinals);
+	}
+
+	public ConceptSet and(ConceptSet other) {
+		return new ConceptSet(dictionary, RoaringBitmap.and(ordinals, other.ordinals));
+	}
+
+	public ConceptSet or(ConceptSet other) {
+		return new ConceptSet(dictionary, RoaringBitmap.or(ordinals, other.ordinals));
+	}
+
+	/**
+	 * ECL MINUS, the concepts of this set that are not in the other.
+	 */
+	public ConceptSet andNot(ConceptSet other) {
+		return new ConceptSet(dictionary, RoaringBitmap.andNot(ordinals, other.ordinals));
+	}
+
+	public boolean contains(long conceptId) {
+		int ordinal = dictionary.getOrdinal(conceptId);
+		return ordinal != ConceptDictionary.NOT_FOUND && ordinals.contains(ordinal);
+	}
+
+	public int size() {
+		return ordinals.getCardinality();
+	}
+
+	public boolean isEmpty() {
+		return ordinals.isEmpty();
+	}
+
+	public long getSizeInBytes() {
+		return ordinals.getLongSizeInBytes();
+	}
+
+	/**
+	 * Returns the concept ids in ascending order.
+	 */
+	public LongList toConceptIds() {
+		LongArrayList conceptIds = new LongArrayList(size());
+		ordinals.forEach((int ordinal) -> conceptIds.add(dictionary.getConceptId(ordinal)));
+		return conceptIds;
+	}
+
+	RoaringBitmap getOrdinals() {
+		return ordinals;
+	}
+
+	ConceptDictionary getDictionary() {
+		return dictionary;
+	}
+}
@@ -4,10 +4,8 @@ import static org.snomed.otf.owltoolkit.domain.Relationship.ConcreteValue;
 import static org.snomed.otf.owltoolkit.domain.Relationship.ConcreteValue.Type;
 import static org.snomed.quality.validator.mrcm.Constants.*;
 
-import org.ihtsdo.otf.snomedboot.ReleaseImportException;
-import org.ihtsdo.otf.snomedboot.ReleaseImporter;
+import org.ihtsdo.otf.snomedboot.factory.ComponentFactory;
 import org.ihtsdo.otf.snomedboot.factory.ImpotentComponentFactory;
-import org.ihtsdo.otf.snomedboot.factory.LoadingProfile;
 import org.snomed.otf.owltoolkit.conversion.AxiomRelationshipConversionService;
 import org.snomed.otf.owltoolkit.conversion.ConversionException;
 import org.snomed.otf.owltoolkit.domain.AxiomRepresentation;
@@ -18,12 +16,11 @@ import java.util.*;
 
 public class ConcreteAttributeDataTypeValidationService {
 
-	public void validate(Set<String> extractedRF2FilesDirectories, ValidationRun run) throws ReleaseImportException {
-		LoadingProfile profile = run.getContentType() == ContentType.STATED ?
-				LoadingProfile.light.withRefsets(OWL_AXIOM_REFSET).withJustRefsets() :
-				LoadingProfile.light.withoutStatedRelationships().withoutDescriptions().withRefsets(OWL_AXIOM_REFSET);
+	private final Map<String, Attribute> attributeRangeMap;
+	private final DataTypeValidationComponentFactory componentFactory;
 
-		Map<String, Attribute> attributeRangeMap = new HashMap<>();
+	public ConcreteAttributeDataTypeValidationService(ValidationRun run) {
+		attributeRangeMap = new HashMap<>();
 		Map<String, Type> concreteAttributeDataTypeMap = new HashMap<>();
 
 		run.getAttributeRangesMap().keySet().forEach(attributeId -> run.getAttributeRangesMap().get(attributeId)
@@ -33,22 +30,23 @@ public class ConcreteAttributeDataTypeValidationService {
 			attributeRangeMap.putIfAbsent(attributeId, range);
 		})));
 
-		ReleaseImporter releaseImporter = new ReleaseImporter();
 		AxiomRelationshipConversionService conversionService = new AxiomRelationshipConversionService(run.getUngroupedAttributes());
-		DataTypeValidationComponentFactory componentFactory = new DataTypeValidationComponentFactory(concreteAttributeDataTypeMap, conversionService);
-
-		if (run.isFullSnapshotRelease()) {
-			releaseImporter.loadSnapshotReleaseFiles(extractedRF2FilesDirectories.iterator().next(), profile,componentFactory, false);
-		} else {
-			boolean loadDelta = RF2ReleaseFilesUtil.anyDeltaFilesPresent(extractedRF2FilesDirectories);
-			if (loadDelta) {
-				releaseImporter.loadEffectiveSnapshotAndDeltaReleaseFiles(extractedRF2FilesDirectories, profile, componentFactory, false);
-			} else {
-				releaseImporter.loadEffectiveSnapshotReleaseFiles(extractedRF2FilesDirectories, profile, componentFactory, false);
-			}
-		}
+		// Concrete relationships only belong to the inferred view, the stated view is checked against the axioms alone
+		componentFactory = new DataTypeValidationComponentFactory(concreteAttributeDataTypeMap, conversionService, run.getContentType() == ContentType.INFERRED);
+	}
 
+	/**
+	 * @return the factory collecting data type violations, to be registered with the release import
+	 * so that the check shares the single pass over the RF2 files.
+	 */
+	public ComponentFactory getComponentFactory() {
+		return componentFactory;
+	}
 
+	/**
+	 * Reports the violations collected by {@link #getComponentFactory()} once the release files have been loaded.
+	 */
+	public void validate(ValidationRun run) {
 		// Add assertions for all concrete attributes defined in the MRCM
 		attributeRangeMap.values().forEach(attribute -> {
 			Assertion assertion;
@@ -59,6 +57,7 @@ public class ConcreteAttributeDataTypeValidationService {
 			} else {
 				assertion = new Assertion(attribute, ValidationType.CONCRETE_ATTRIBUTE_DATA_TYPE, null, Assertion.FailureType.ERROR);
 			}
+			assertion.setAttributeDescriptor(run.getAttributeDescriptor(attribute.getAttributeId()));
 			run.addCompletedAssertion(assertion);
 		});
 
@@ -70,6 +69,7 @@ public class ConcreteAttributeDataTypeValidationService {
 			List<Long> conceptIds = new ArrayList<>(componentFactory.getAttributeToViolatedConceptsMap().get(attributeId));
 			String failureMsg = componentFactory.getAttributeToFailureMsgMap().get(attributeId);
 			Assertion assertion = new Assertion(attribute, ValidationType.CONCRETE_ATTRIBUTE_DATA_TYPE, failureMsg, Assertion.FailureType.ERROR, conceptIds);
+			assertion.setAttributeDescriptor(run.getAttributeDescriptor(attributeId));
 			run.addCompletedAssertion(assertion);
 		});
 	}
@@ -87,10 +87,13 @@ public class ConcreteAttributeDataTypeValidationService {
 		private final Map<String, String> attributeToFailureMsgMap;
 
 		private final AxiomRelationshipConversionService conversionService;
+		private final boolean validateConcreteRelationships;
 
-		public DataTypeValidationComponentFactory(final Map<String, Type> concreteAttributeDataTypeMap, final AxiomRelationshipConversionService conversionService) {
+		public DataTypeValidationComponentFactory(final Map<String, Type> concreteAttributeDataTypeMap, final AxiomRelationshipConversionService conversionService,
+				final boolean validateConcreteRelationships) {
 			this.concreteAttributeDataTypeMap = concreteAttributeDataTypeMap;
 			this.conversionService = conversionService;
+			this.validateConcreteRelationships = validateConcreteRelationships;
 			attributeToViolatedConceptsMap = new HashMap<>();
 			attributeToFailureMsgMap = new HashMap<>();
 		}
@@ -98,7 +101,7 @@ public class ConcreteAttributeDataTypeValidationService {
 		@Override
 		public void newConcreteRelationshipState(final String id, final String effectiveTime, final String active, final String moduleId, final String sourceId,
 				final String value, final String relationshipGroup, final String typeId, final String characteristicTypeId, final String modifierId) {
-			if ("1".equals(active)) {
+			if (validateConcreteRelationships && "1".equals(active)) {
 				if (concreteAttributeDataTypeMap.containsKey(typeId)) {
 					final Type dataTypeInMRCM = concreteAttributeDataTypeMap.get(typeId);
 					final ConcreteValue concreteValue = new ConcreteValue(value);
@@ -128,7 +131,7 @@ public class ConcreteAttributeDataTypeValidationService {
 			}
 		}
 
-		private void addAttributeToViolatedConceptsMap(final String sourceId, final String typeId, final String failureMsg) {
+		private synchronized void addAttributeToViolatedConceptsMap(final String sourceId, final String typeId, final String failureMsg) {
 			if (!attributeToFailureMsgMap.containsKey(typeId)) {
 				attributeToFailureMsgMap.put(typeId, failureMsg);
 			}
@@ -157,7 +160,7 @@ public class ConcreteAttributeDataTypeValidationService {
 			}
 		}
 
-		private void processFailureMessagesForAxiomRelationships(final AxiomRepresentation axiom, final Set<Relationship> relationships) {
+		private synchronized void processFailureMessagesForAxiomRelationships(final AxiomRepresentation axiom, final Set<Relationship> relationships) {
 			relationships.stream().filter(Relationship::isConcrete).forEach(relationship -> {
 				final String typeId = String.valueOf(relationship.getTypeId());
 				final Type dataTypeInMRCM = concreteAttributeDataTypeMap.get(typeId);
@@ -4,7 +4,7 @@ public final class Constants {
 
 	public static final String ERROR_MESSAGE = "Please specify the java arguments after replacing the { } with actual values. {release_package_unzipped_root} {content_type} {release_date} {result_dir}";
 
-	public static final String RELEASE_PACKAGE_UNZIPPED_ROOT_DIR_HELP_MESSAGE = "{release_package_unzipped_root_dir} is for the release package unzipped file root directory. eg: /Users/Releases/SnomedCT_InternationalRF2_PRODUCTION_20170731T120000Z";
+	public static final String RELEASE_PACKAGE_UNZIPPED_ROOT_DIR_HELP_MESSAGE = "{release_package_unzipped_root_dir} is for the release package unzipped file root directory, or the release package ZIP file itself. eg: /Users/Releases/SnomedCT_InternationalRF2_PRODUCTION_20170731T120000Z";
 
 	public static final String CONTENT_TYPE_HELP_MESSAGE = "{content_type} is used to specify whether to validate against stated, inferred or both. (Note: Use comma to separate multiple type e.g stated,inferred).";
 
@@ -12,6 +12,14 @@ public final class Constants {
 
 	public static final String RESULT_DIR_HELP_MESSAGE = "{result_dir} is the directory where validation reports will be saved.";
 
+	public static final String INDEX_CACHE_DIR_PROPERTY = "mrcm.index.cache.dir";
+
+	public static final String INDEX_CACHE_MAX_ENTRIES_PROPERTY = "mrcm.index.cache.max.entries";
+
+	public static final String SEP_EXCLUSION_ROOTS_PROPERTY = "mrcm.sep.exclusion.roots";
+
+	public static final String VALIDATION_THREADS_PROPERTY = "mrcm.validation.threads";
+
 	public static final String MRCM_TITLE_PREFIX = "MRCM";
 
 	public static final String TXT_EXTENSION = ".txt";
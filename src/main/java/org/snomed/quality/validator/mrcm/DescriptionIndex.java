@@ -0,0 +1,137 @@
+package org.snomed.quality.validator.mrcm;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Descriptions of the concepts used in the MRCM, indexed by concept id.
+ * Concept ids are held in an open-addressing hash table of primitive longs, each pointing at a chain of descriptions
+ * stored in parallel arrays. Terms are dictionary encoded so matching a term is an int comparison.
+ * Descriptions can be added from several threads while loading. Lookups are not synchronised and must only be made once loading has completed.
+ */
+public class DescriptionIndex {
+
+	private static final int NONE = -1;
+	private static final long EMPTY_KEY = 0;
+	private static final float MAX_LOAD_FACTOR = 0.5f;
+
+	// Concept id hash table
+	private long[] conceptIds;
+	private int[] firstDescriptions;
+	private int conceptCount;
+
+	// Descriptions, chained per concept
+	private long[] descriptionIds;
+	private int[] termOrdinals;
+	private boolean[] active;
+	private int[] nextDescriptions;
+	private int descriptionCount;
+
+	private final Map<String, Integer> termDictionary;
+
+	public DescriptionIndex() {
+		this(1024);
+	}
+
+	public DescriptionIndex(int expectedConcepts) {
+		int capacity = Integer.highestOneBit(Math.max(16, (int) (expectedConcepts / MAX_LOAD_FACTOR)) - 1) << 1;
+		conceptIds = new long[capacity];
+		firstDescriptions = new int[capacity];
+		descriptionIds = new long[capacity];
+		termOrdinals = new int[capacity];
+		active = new boolean[capacity];
+		nextDescriptions = new int[capacity];
+		termDictionary = new HashMap<>();
+	}
+
+	public synchronized void add(long conceptId, long descriptionId, boolean isActive, String term) {
+		if (descriptionCount == descriptionIds.length) {
+			int capacity = descriptionIds.length * 2;
+			descriptionIds = Arrays.copyOf(descriptionIds, capacity);
+			termOrdinals = Arrays.copyOf(termOrdinals, capacity);
+			active = Arrays.copyOf(active, capacity);
+			nextDescriptions = Arrays.copyOf(nextDescriptions, capacity);
+		}
+		int slot = findSlot(conceptIds, conceptId);
+		if (conceptIds[slot] == EMPTY_KEY) {
+			if (conceptCount + 1 > conceptIds.length * MAX_LOAD_FACTOR) {
+				rehash();
+				slot = findSlot(conceptIds, conceptId);
+			}
+			conceptIds[slot] = conceptId;
+			firstDescriptions[slot] = NONE;
+			conceptCount++;
+		}
+		int description = descriptionCount++;
+		descriptionIds[description] = descriptionId;
+		termOrdinals[description] = termDictionary.computeIfAbsent(term, t -> termDictionary.size());
+		active[description] = isActive;
+		nextDescriptions[description] = firstDescriptions[slot];
+		firstDescriptions[slot] = description;
+	}
+
+	/**
+	 * Returns true when the concept has an active description with exactly the given term.
+	 */
+	public boolean hasActiveTerm(long conceptId, String term) {
+		Integer termOrdinal = termDictionary.get(term);
+		if (termOrdinal == null) {
+			return false;
+		}
+		int slot = findSlot(conceptIds, conceptId);
+		if (conceptIds[slot] == EMPTY_KEY) {
+			return false;
+		}
+		for (int description = firstDescriptions[slot]; description != NONE; description = nextDescriptions[description]) {
+			if (active[description] && termOrdinals[description] == termOrdinal) {
+				return true;
+			}
+		}
+		return false;
+	}
+
+	public boolean containsConcept(long conceptId) {
+		return conceptIds[findSlot(conceptIds, conceptId)] != EMPTY_KEY;
+	}
+
+	public int getConceptCount() {
+		return conceptCount;
+	}
+
+	public int getDescriptionCount() {
+		return descriptionCount;
+	}
+
+	private void rehash() {
+		long[] oldConceptIds = conceptIds;
+		int[] oldFirstDescriptions = firstDescriptions;
+		conceptIds = new long[oldConceptIds.length * 2];
+		firstDescriptions = new int[oldConceptIds.length * 2];
+		for (int i = 0; i < oldConceptIds.length; i++) {
+			if (oldConceptIds[i] != EMPTY_KEY) {
+				int slot = findSlot(conceptIds, oldConceptIds[i]);
+				conceptIds[slot] = oldConceptIds[i];
+				firstDescriptions[slot] = oldFirstDescriptions[i];
+			}
+		}
+	}
+
+	/**
+	 * Linear probing. Returns the slot holding the key or the empty slot where it would be inserted.
+	 */
+	private static int findSlot(long[] keys, long key) {
+		int mask = keys.length - 1;
+		int slot = mix(key) & mask;
+		while (keys[slot] != EMPTY_KEY && keys[slot] != key) {
+			slot = (slot + 1) & mask;
+		}
+		return slot;
+	}
+
+	private static int mix(long key) {
+		// SCTIDs share their low digits (partition id and check digit), so spread all bits before masking
+		long h = key * 0x9E3779B97F4A7C15L;
+		return (int) (h ^ (h >>> 32));
+	}
+}
@@ -0,0 +1,142 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.longs.LongLists;
+import org.ihtsdo.otf.sqs.service.SnomedQueryService;
+import org.ihtsdo.otf.sqs.service.exception.ServiceException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+
+/**
+ * Caches the concept ids matched by ECL queries for the duration of a validation run, so the sub-queries
+ * that the validation types have in common are only evaluated once.
+ * Queries are keyed on their normalised text, results are held as {@link ConceptSet} bitmaps and evicted least recently used first
+ * once their total size exceeds the limit. Concepts without a concept row in the release are left out of the results.
+ * Safe to use from several threads.
+ */
+public class EclQueryCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(EclQueryCache.class);
+
+	public static final long DEFAULT_MAX_CACHED_BYTES = 256L * 1024 * 1024;
+
+	private static final Pattern WHITESPACE = Pattern.compile("\\s+");
+	private static final Pattern WHITESPACE_AROUND_PUNCTUATION = Pattern.compile(" ?([:=,(){}\\[\\]<>^!*|]) ?");
+
+	/**
+	 * Evaluates an ECL query to the ids of all matching concepts.
+	 */
+	@FunctionalInterface
+	interface EclQuery {
+		List<Long> conceptIds(String ecl) throws ServiceException;
+	}
+
+	private final EclQuery query;
+	private final ConceptDictionary dictionary;
+	private final long maxCachedBytes;
+	private final LinkedHashMap<String, ConceptSet> results;
+	private long cachedBytes;
+	private final AtomicLong hits = new AtomicLong();
+	private final AtomicLong misses = new AtomicLong();
+
+	public EclQueryCache(SnomedQueryService queryService, ConceptDictionary dictionary) {
+		this(queryService, dictionary, DEFAULT_MAX_CACHED_BYTES);
+	}
+
+	public EclQueryCache(SnomedQueryService queryService, ConceptDictionary dictionary, long maxCachedBytes) {
+		this(ecl -> queryService.eclQueryReturnConceptIdentifiers(ecl, 0, -1).conceptIds(), dictionary, maxCachedBytes);
+	}
+
+	EclQueryCache(EclQuery query, ConceptDictionary dictionary, long maxCachedBytes) {
+		this.query = query;
+		this.dictionary = dictionary;
+		this.maxCachedBytes = maxCachedBytes;
+		this.results = new LinkedHashMap<>(256, 0.75f, true);
+	}
+
+	/**
+	 * Returns all concept ids matching the ECL, in ascending order. The list can't be modified.
+	 */
+	public List<Long> conceptIds(String ecl) throws ServiceException {
+		return LongLists.unmodifiable(conceptSet(ecl).toConceptIds());
+	}
+
+	/**
+	 * Returns the concepts matching the ECL as a set that can be combined with other results without converting them to ids.
+	 */
+	public ConceptSet conceptSet(String ecl) throws ServiceException {
+		String key = normalise(ecl);
+		ConceptSet concepts;
+		synchronized (this) {
+			concepts = results.get(key);
+		}
+		if (concepts != null) {
+			hits.incrementAndGet();
+			return concepts;
+		}
+		misses.incrementAndGet();
+		// Evaluated outside the lock, two threads missing on the same query at once both evaluate it
+		// The query index also holds concepts only referred to by relationships or axioms of a broken release,
+		// they have no concept row so are left out like everywhere else the release is read
+		List<Long> conceptIds = query.conceptIds(ecl);
+		concepts = ConceptSet.ofKnownConcepts(dictionary, conceptIds);
+		if (concepts.size() < conceptIds.size()) {
+			LOGGER.warn("{} of the {} concepts matching '{}' have no concept row in the release and are left out", conceptIds.size() - concepts.size(),
+					conceptIds.size(), ecl);
+		}
+		put(key, concepts);
+		return concepts;
+	}
+
+	public ConceptDictionary getDictionary() {
+		return dictionary;
+	}
+
+	public long getHits() {
+		return hits.get();
+	}
+
+	public long getMisses() {
+		return misses.get();
+	}
+
+	public void logStatistics() {
+		long total = hits.get() + misses.get();
+		LOGGER.info("ECL query cache: {} hits, {} misses ({}% hit rate), {} KB cached", hits.get(), misses.get(),
+				total == 0 ? 0 : hits.get() * 100 / total, cachedBytes / 1024);
+	}
+
+	/**
+	 * Whitespace is insignificant in ECL except between words, so it is collapsed and removed next to punctuation.
+	 */
+	static String normalise(String ecl) {
+		String collapsed = WHITESPACE.matcher(ecl.trim()).replaceAll(" ");
+		return WHITESPACE_AROUND_PUNCTUATION.matcher(collapsed).replaceAll("$1");
+	}
+
+	private synchronized void put(String key, ConceptSet concepts) {
+		long size = concepts.getSizeInBytes();
+		if (size > maxCachedBytes) {
+			return;
+		}
+		ConceptSet previous = results.put(key, concepts);
+		if (previous != null) {
+			cachedBytes -= previous.getSizeInBytes();
+		}
+		cachedBytes += size;
+		Iterator<Map.Entry<String, ConceptSet>> eldest = results.entrySet().iterator();
+		while (cachedBytes > maxCachedBytes && eldest.hasNext()) {
+			Map.Entry<String, ConceptSet> entry = eldest.next();
+			if (!entry.getKey().equals(key)) {
+				cachedBytes -= entry.getValue().getSizeInBytes();
+				eldest.remove();
+			}
+		}
+	}
+}
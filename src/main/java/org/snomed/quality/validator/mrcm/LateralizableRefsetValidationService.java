@@ -1,16 +1,15 @@
 package org.snomed.quality.validator.mrcm;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
 import org.ihtsdo.otf.sqs.service.SnomedQueryService;
 import org.ihtsdo.otf.sqs.service.dto.ConceptIdResults;
 import org.ihtsdo.otf.sqs.service.dto.ConceptResult;
-import org.ihtsdo.otf.sqs.service.exception.ConceptNotFoundException;
 import org.ihtsdo.otf.sqs.service.exception.ServiceException;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.snomed.quality.validator.mrcm.model.ReferenceSetMember;
 
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class LateralizableRefsetValidationService {
 	private static final Logger LOGGER = LoggerFactory.getLogger(LateralizableRefsetValidationService.class);
@@ -52,10 +51,15 @@ public class LateralizableRefsetValidationService {
 
 	private List<ConceptResult> getRelevantConceptsToRemove(SnomedQueryService queryService, ValidationRun run, Map<String, List<ReferenceSetMember>> membersByConceptId) throws ServiceException {
 		List<ConceptResult> result = new ArrayList<>();
-		Set<Long> conceptsToRemove = new HashSet<>(getAllConceptsByECL(queryService, ECL_TO_REMOVE_MEMBERSHIP));
+		List<Long> conceptsToRemove = getAllConceptsByECL(queryService, run, ECL_TO_REMOVE_MEMBERSHIP);
+		ConceptHydrator conceptHydrator = getConceptHydrator(queryService, run);
+		Long2ObjectMap<ConceptResult> concepts = conceptHydrator.hydrate(conceptsToRemove);
 
 		for (Long conceptId : conceptsToRemove) {
-			ConceptResult conceptResult = queryService.retrieveConcept(conceptId.toString());
+			ConceptResult conceptResult = concepts.get(conceptId.longValue());
+			if (conceptResult == null) {
+				continue;
+			}
 			boolean conceptMatches = conceptResult.getEffectiveTime().equals(run.getReleaseDate());
 			boolean memberMatches = membersByConceptId.getOrDefault(String.valueOf(conceptId), Collections.emptyList()).stream().filter(ReferenceSetMember::active).anyMatch(r -> Objects.equals(r.effectiveTime(), run.getReleaseDate()));
 			if (conceptMatches || memberMatches) {
@@ -64,18 +68,14 @@ public class LateralizableRefsetValidationService {
 		}
 
 		// Exclude concepts that have the following semantic tags: cell/Cell structure/Morphologic abnormality
-		for (ReferenceSetMember member : run.getLateralizableRefsetMembers()) {
-			if (!member.active()) {
-				continue;
-			}
-
-			try {
-				ConceptResult conceptResult = queryService.retrieveConcept(member.referencedComponentId());
-				if (conceptResult != null && isCellStructure(conceptResult.getFsn())) {
-					result.add(conceptResult);
-				}
-			} catch (ConceptNotFoundException e) {
+		List<ReferenceSetMember> activeMembers = run.getLateralizableRefsetMembers().stream().filter(ReferenceSetMember::active).toList();
+		Long2ObjectMap<ConceptResult> memberConcepts = conceptHydrator.hydrate(activeMembers.stream().map(member -> Long.parseLong(member.referencedComponentId())).toList());
+		for (ReferenceSetMember member : activeMembers) {
+			ConceptResult conceptResult = memberConcepts.get(Long.parseLong(member.referencedComponentId()));
+			if (conceptResult == null) {
 				result.add(new ConceptResult(member.referencedComponentId()));
+			} else if (isCellStructure(conceptResult.getFsn())) {
+				result.add(conceptResult);
 			}
 		}
 
@@ -86,11 +86,12 @@ public class LateralizableRefsetValidationService {
 
 	private List<ConceptResult> getRelevantConceptsToAdd(SnomedQueryService queryService, ValidationRun run, Map<String, List<ReferenceSetMember>> membersByConceptId) throws ServiceException {
 		List<ConceptResult> result = new ArrayList<>();
-		Set<Long> conceptsToAdd = new HashSet<>(getAllConceptsByECL(queryService, ECL_TO_ADD_MEMBERSHIP));
+		List<Long> conceptsToAdd = getAllConceptsByECL(queryService, run, ECL_TO_ADD_MEMBERSHIP);
+		Long2ObjectMap<ConceptResult> concepts = getConceptHydrator(queryService, run).hydrate(conceptsToAdd);
 
 		for (Long conceptId : conceptsToAdd) {
-			ConceptResult conceptResult = queryService.retrieveConcept(conceptId.toString());
-			if (isCellStructure(conceptResult.getFsn())) {
+			ConceptResult conceptResult = concepts.get(conceptId.longValue());
+			if (conceptResult == null || isCellStructure(conceptResult.getFsn())) {
 				continue;
 			}
 
@@ -106,7 +107,14 @@ public class LateralizableRefsetValidationService {
 		return result;
 	}
 
-	private List<Long> getAllConceptsByECL(SnomedQueryService queryService, String ecl) throws ServiceException {
+	private ConceptHydrator getConceptHydrator(SnomedQueryService queryService, ValidationRun run) {
+		return run.getConceptHydrator() != null ? run.getConceptHydrator() : new ConceptHydrator(queryService);
+	}
+
+	private List<Long> getAllConceptsByECL(SnomedQueryService queryService, ValidationRun run, String ecl) throws ServiceException {
+		if (run.getEclQueryCache() != null) {
+			return run.getEclQueryCache().conceptIds(ecl);
+		}
 		ConceptIdResults results = queryService.eclQueryReturnConceptIdentifiers(ecl, 0, -1);
 		return results.conceptIds();
 	}
@@ -119,8 +127,8 @@ public class LateralizableRefsetValidationService {
 				referenceSetMembers.removeIf(referenceSetMember -> !moduleIds.contains(referenceSetMember.moduleId()));
 			}
 
-			List<String> referencedComponentIds = referenceSetMembers.stream().filter(ReferenceSetMember::active).map(ReferenceSetMember::referencedComponentId).toList();
-			conceptsToRemove.removeIf(conceptResult -> !referencedComponentIds.contains(conceptResult.getId()));
+			ConceptSet referencedComponentIds = getActiveReferencedComponents(run, referenceSetMembers);
+			conceptsToRemove.removeIf(conceptResult -> !referencedComponentIds.contains(Long.parseLong(conceptResult.getId())));
 
 			assertionOfMembersToRemove.setCurrentViolatedConcepts(conceptsToRemove);
 			assertionOfMembersToRemove.setCurrentViolatedConceptIds(conceptsToRemove.stream().map(ConceptResult::getId).map(Long::parseLong).toList());
@@ -130,11 +138,11 @@ public class LateralizableRefsetValidationService {
 
 	private void reportConceptsToAdd(ValidationRun run, List<ConceptResult> conceptsToAdd, Assertion assertionOfConceptsToAdd) {
 		if (!conceptsToAdd.isEmpty()) {
-			Set<String> allActiveReferencedComponentIds = run.getLateralizableRefsetMembers().stream().filter(ReferenceSetMember::active).map(ReferenceSetMember::referencedComponentId).collect(Collectors.toSet());
+			ConceptSet allActiveReferencedComponentIds = getActiveReferencedComponents(run, run.getLateralizableRefsetMembers());
 			Set<String> moduleIds = run.getModuleIds();
 			boolean hasModules = moduleIds != null && !moduleIds.isEmpty();
 			conceptsToAdd.removeIf(conceptResult -> {
-				boolean duplicate = allActiveReferencedComponentIds.contains(conceptResult.getId());
+				boolean duplicate = allActiveReferencedComponentIds.contains(Long.parseLong(conceptResult.getId()));
 				boolean outOfScope = hasModules && !moduleIds.contains(conceptResult.getModuleId());
 				return duplicate || outOfScope;
 			});
@@ -145,6 +153,12 @@ public class LateralizableRefsetValidationService {
 		}
 	}
 
+	private ConceptSet getActiveReferencedComponents(ValidationRun run, Set<ReferenceSetMember> referenceSetMembers) {
+		long[] referencedComponentIds = referenceSetMembers.stream().filter(ReferenceSetMember::active).mapToLong(member -> Long.parseLong(member.referencedComponentId())).toArray();
+		ConceptDictionary dictionary = run.getConceptDictionary() != null ? run.getConceptDictionary() : ConceptDictionary.of(referencedComponentIds);
+		return ConceptSet.ofKnownConcepts(dictionary, referencedComponentIds);
+	}
+
 	private Map<String, List<ReferenceSetMember>> mapMembersByConceptId(ValidationRun run) {
 		if (run == null) {
 			return Collections.emptyMap();
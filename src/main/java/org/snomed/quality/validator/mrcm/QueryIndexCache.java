@@ -0,0 +1,298 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * On-disk cache of the query indexes built from a release, one Lucene index directory per content type.
+ * Entries are keyed by a SHA-256 digest of the RF2 files that feed the index plus the MRCM settings that change how axioms are converted,
+ * so a release can be re-validated against a new MRCM without rebuilding its indexes.
+ * The cache holds at most a maximum number of keys, the least recently used are deleted when a new index is added, see {@link #evict(String)}.
+ */
+public class QueryIndexCache {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(QueryIndexCache.class);
+
+	// Bump whenever the content or layout of the cached index changes
+	private static final int FORMAT_VERSION = 4;
+
+	// MRCM refsets are loaded separately and never reach the query index
+	private static final String MRCM_FILENAME_PATTERN = ".*MRCM.*";
+
+	private static final int HASH_BUFFER_SIZE = 1024 * 1024;
+
+	// Maps the names, sizes and modification times of the release files to the digest of their content
+	private static final String FINGERPRINTS_DIRECTORY = "fingerprints";
+
+	public static final int DEFAULT_MAX_ENTRIES = 3;
+
+	private static final String KEY_PATTERN = "[0-9a-f]{64}";
+
+	private final File cacheDirectory;
+	private final int maxEntries;
+
+	public QueryIndexCache(File cacheDirectory) {
+		this(cacheDirectory, DEFAULT_MAX_ENTRIES);
+	}
+
+	/**
+	 * @param maxEntries the number of keys, each holding the indexes of one release and MRCM settings, kept in the cache
+	 */
+	public QueryIndexCache(File cacheDirectory, int maxEntries) {
+		if (maxEntries < 1) {
+			throw new IllegalArgumentException("The index cache must hold at least one entry.");
+		}
+		this.cacheDirectory = cacheDirectory;
+		this.maxEntries = maxEntries;
+	}
+
+	/**
+	 * Returns the SHA-256 digest of the RF2 files found under the given directories or release package ZIP files, in a stable order, along with the settings that affect the index.
+	 * The digest is remembered against the names, sizes and modification times of the files, so while those don't change the files are not read again.
+	 */
+	public String computeKey(Set<String> extractedRF2FilesDirectories, Set<Long> ungroupedAttributes, boolean fullSnapshotRelease) throws IOException {
+		final String settings = FORMAT_VERSION + "|" + fullSnapshotRelease + "|" +
+				ungroupedAttributes.stream().sorted().map(String::valueOf).collect(Collectors.joining(","));
+		final SortedSet<String> directories = new TreeSet<>(extractedRF2FilesDirectories);
+		final File fingerprintFile = new File(new File(cacheDirectory, FINGERPRINTS_DIRECTORY), computeFingerprint(directories, settings));
+		if (fingerprintFile.isFile()) {
+			final String key = Files.readString(fingerprintFile.toPath(), StandardCharsets.UTF_8).trim();
+			if (key.matches(KEY_PATTERN)) {
+				return key;
+			}
+		}
+		final String key = computeContentDigest(directories, settings);
+		Files.createDirectories(fingerprintFile.getParentFile().toPath());
+		final Path temporaryFile = Files.createTempFile(fingerprintFile.getParentFile().toPath(), fingerprintFile.getName(), ".tmp");
+		Files.writeString(temporaryFile, key, StandardCharsets.UTF_8);
+		Files.move(temporaryFile, fingerprintFile.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		return key;
+	}
+
+	/**
+	 * Digests the path, size and modification time of each RF2 file, or of the ZIP file, without reading them.
+	 */
+	private static String computeFingerprint(SortedSet<String> directories, String settings) throws IOException {
+		final MessageDigest digest = newDigest();
+		for (String directory : directories) {
+			if (ZipReleaseImporter.isZipFile(directory)) {
+				updateWithAttributes(digest, Paths.get(directory).toAbsolutePath().toString(), Paths.get(directory));
+				continue;
+			}
+			final Path root = Paths.get(directory).toAbsolutePath();
+			for (Path file : listRF2Files(root)) {
+				updateWithAttributes(digest, file.toString(), file);
+			}
+		}
+		updateWithName(digest, settings);
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	private static void updateWithAttributes(MessageDigest digest, String name, Path file) throws IOException {
+		final BasicFileAttributes attributes = Files.readAttributes(file, BasicFileAttributes.class);
+		updateWithName(digest, name);
+		digest.update(ByteBuffer.allocate(Long.BYTES * 2).putLong(attributes.size()).putLong(attributes.lastModifiedTime().to(TimeUnit.NANOSECONDS)).flip());
+	}
+
+	/**
+	 * Digests the relative path and content of each RF2 file, or of each RF2 entry of a ZIP file.
+	 */
+	private static String computeContentDigest(SortedSet<String> directories, String settings) throws IOException {
+		final MessageDigest digest = newDigest();
+		final ByteBuffer buffer = ByteBuffer.allocateDirect(HASH_BUFFER_SIZE);
+		long totalBytes = 0;
+		for (String directory : directories) {
+			if (ZipReleaseImporter.isZipFile(directory)) {
+				try (ZipFile zipFile = new ZipFile(directory)) {
+					final byte[] bytes = new byte[HASH_BUFFER_SIZE];
+					for (ZipEntry entry : listRF2Entries(zipFile)) {
+						updateWithName(digest, entry.getName());
+						try (InputStream in = zipFile.getInputStream(entry)) {
+							int read;
+							while ((read = in.read(bytes)) != -1) {
+								digest.update(bytes, 0, read);
+								totalBytes += read;
+							}
+						}
+					}
+				}
+				continue;
+			}
+			final Path root = Paths.get(directory);
+			for (Path file : listRF2Files(root)) {
+				updateWithName(digest, root.relativize(file).toString());
+				try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+					while (channel.read(buffer) != -1) {
+						buffer.flip();
+						totalBytes += buffer.remaining();
+						digest.update(buffer);
+						buffer.clear();
+					}
+				}
+			}
+		}
+		updateWithName(digest, settings);
+		LOGGER.info("Hashed {} bytes of RF2 files for the index cache", totalBytes);
+		return HexFormat.of().formatHex(digest.digest());
+	}
+
+	/**
+	 * Adds the name followed by a separator, so that names and contents can't run into each other.
+	 */
+	private static void updateWithName(MessageDigest digest, String name) {
+		digest.update(name.getBytes(StandardCharsets.UTF_8));
+		digest.update((byte) 0);
+	}
+
+	private static MessageDigest newDigest() {
+		try {
+			return MessageDigest.getInstance("SHA-256");
+		} catch (NoSuchAlgorithmException e) {
+			throw new IllegalStateException("SHA-256 is not available.", e);
+		}
+	}
+
+	public boolean contains(String key, ContentType contentType) {
+		return getIndexDirectory(key, contentType).isDirectory() && getRelationshipTableFile(key, contentType).isFile() && getHierarchyFile(key, contentType).isFile();
+	}
+
+	public File getIndexDirectory(String key, ContentType contentType) {
+		return new File(new File(cacheDirectory, key), contentType.getType());
+	}
+
+	/**
+	 * The relationships of the view, see {@link RelationshipTable.Builder#write}. Stored next to the index and written before it is published.
+	 */
+	public File getRelationshipTableFile(String key, ContentType contentType) {
+		return new File(new File(cacheDirectory, key), contentType.getType() + ".relationships");
+	}
+
+	/**
+	 * The is-a relationships of the view, see {@link ConceptHierarchy.ReleaseBuilder#write}. Stored and published like the relationship table.
+	 */
+	public File getHierarchyFile(String key, ContentType contentType) {
+		return new File(new File(cacheDirectory, key), contentType.getType() + ".hierarchy");
+	}
+
+	/**
+	 * Returns an empty directory to build an index in. Once the index is written it is published with {@link #publish}.
+	 */
+	public File createWorkingDirectory(String key, ContentType contentType) throws IOException {
+		final File keyDirectory = new File(cacheDirectory, key);
+		Files.createDirectories(keyDirectory.toPath());
+		return Files.createTempDirectory(keyDirectory.toPath(), contentType.getType() + "-").toFile();
+	}
+
+	/**
+	 * Moves a fully written index into place. The move is atomic so a partially written index is never picked up by another run.
+	 * Returns the directory the index should be read from.
+	 */
+	public File publish(String key, ContentType contentType, File workingDirectory) throws IOException {
+		final File indexDirectory = getIndexDirectory(key, contentType);
+		try {
+			Files.move(workingDirectory.toPath(), indexDirectory.toPath(), StandardCopyOption.ATOMIC_MOVE);
+		} catch (FileAlreadyExistsException | DirectoryNotEmptyException e) {
+			// Another run published the same index first
+			LOGGER.info("Index for {} already cached by another run", contentType.getType());
+			deleteRecursively(workingDirectory.toPath());
+		}
+		return indexDirectory;
+	}
+
+	/**
+	 * Marks the entry of the key as used now, so it is the last to be evicted.
+	 */
+	public void touch(String key) throws IOException {
+		final File keyDirectory = new File(cacheDirectory, key);
+		if (keyDirectory.isDirectory()) {
+			Files.setLastModifiedTime(keyDirectory.toPath(), FileTime.fromMillis(System.currentTimeMillis()));
+		}
+	}
+
+	/**
+	 * Deletes the least recently used entries beyond the maximum number of entries, never the entry of the given key,
+	 * and the fingerprints of the release files that point to a deleted entry.
+	 * An index still open by another run on the same cache directory may be deleted, so runs sharing a cache should allow for as many entries as they use at once.
+	 */
+	public void evict(String keepKey) throws IOException {
+		final File[] keyDirectories = cacheDirectory.listFiles(file -> file.isDirectory() && file.getName().matches(KEY_PATTERN));
+		if (keyDirectories == null || keyDirectories.length <= maxEntries) {
+			return;
+		}
+		final List<File> entries = new ArrayList<>(Arrays.asList(keyDirectories));
+		entries.sort(Comparator.comparingLong(File::lastModified).reversed());
+		final Set<String> keptKeys = new HashSet<>();
+		keptKeys.add(keepKey);
+		for (File entry : entries) {
+			if (keptKeys.size() < maxEntries || keptKeys.contains(entry.getName())) {
+				keptKeys.add(entry.getName());
+			} else {
+				LOGGER.info("Evicting cached indexes {}", entry.getName());
+				deleteRecursively(entry.toPath());
+			}
+		}
+		final File[] fingerprintFiles = new File(cacheDirectory, FINGERPRINTS_DIRECTORY).listFiles(File::isFile);
+		if (fingerprintFiles != null) {
+			for (File fingerprintFile : fingerprintFiles) {
+				if (!keptKeys.contains(Files.readString(fingerprintFile.toPath(), StandardCharsets.UTF_8).trim())) {
+					Files.deleteIfExists(fingerprintFile.toPath());
+				}
+			}
+		}
+	}
+
+	/**
+	 * Deletes a working directory whose index was not published, e.g. because building it failed.
+	 */
+	public void discardWorkingDirectory(File workingDirectory) throws IOException {
+		if (workingDirectory.exists()) {
+			deleteRecursively(workingDirectory.toPath());
+		}
+	}
+
+	private static List<Path> listRF2Files(Path root) throws IOException {
+		try (Stream<Path> pathStream = Files.find(root, 50, (path, attributes) -> attributes.isRegularFile()
+				&& path.getFileName().toString().endsWith(Constants.TXT_EXTENSION)
+				&& !path.getFileName().toString().matches(MRCM_FILENAME_PATTERN))) {
+			return pathStream.sorted(Comparator.comparing(path -> root.relativize(path).toString())).toList();
+		}
+	}
+
+	private static List<ZipEntry> listRF2Entries(ZipFile zipFile) {
+		return zipFile.stream()
+				.filter(entry -> !entry.isDirectory())
+				.filter(entry -> {
+					String filename = entry.getName().substring(entry.getName().lastIndexOf('/') + 1);
+					return filename.endsWith(Constants.TXT_EXTENSION) && !filename.matches(MRCM_FILENAME_PATTERN);
+				})
+				.sorted(Comparator.comparing(ZipEntry::getName))
+				.map(ZipEntry.class::cast)
+				.toList();
+	}
+
+	private static void deleteRecursively(Path directory) throws IOException {
+		try (Stream<Path> pathStream = Files.walk(directory)) {
+			for (Path path : pathStream.sorted(Comparator.reverseOrder()).toList()) {
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+}
@@ -12,6 +12,12 @@ import java.util.stream.Stream;
 public class RF2ReleaseFilesUtil {
     public static boolean anyDeltaFilesPresent(Set<String> extractedRF2FilesDirectories) throws ReleaseImportException {
         for (String extractedRF2FilesDirectory : extractedRF2FilesDirectories) {
+            if (ZipReleaseImporter.isZipFile(extractedRF2FilesDirectory)) {
+                if (ZipReleaseImporter.anyDeltaFilesPresent(new File(extractedRF2FilesDirectory))) {
+                    return true;
+                }
+                continue;
+            }
             try (final Stream<Path> pathStream = Files.find(new File(extractedRF2FilesDirectory).toPath(), 50,
                     (path, basicFileAttributes) -> path.toFile().getName().matches("x?(sct|rel)2_Concept_[^_]*Delta_.*.txt"))) {
                 if (pathStream.findFirst().isPresent()) {
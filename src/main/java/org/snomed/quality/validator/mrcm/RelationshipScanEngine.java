@@ -0,0 +1,85 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+/**
+ * Runs the checks registered on the relationships of a view in a single scan, in parallel over blocks of concepts.
+ * Each block collects the concepts failing each check in bitmaps of its own, which are merged once all blocks are done.
+ * Subclasses only visit the relationship rows of one concept at a time.
+ *
+ * @param <C> the check of the engine
+ */
+abstract class RelationshipScanEngine<C> {
+
+	private static final int CONCEPTS_PER_TASK = 4096;
+
+	protected final RelationshipTable relationships;
+	private final List<C> checks = new ArrayList<>();
+	private final Long2ObjectOpenHashMap<IntArrayList> checksByType = new Long2ObjectOpenHashMap<>();
+
+	RelationshipScanEngine(RelationshipTable relationships) {
+		this.relationships = relationships;
+	}
+
+	/**
+	 * Registers a check of the relationships of the attribute type. Returns the index of its result.
+	 */
+	protected int addCheck(C check, long attributeTypeId) {
+		checks.add(check);
+		checksByType.computeIfAbsent(attributeTypeId, type -> new IntArrayList()).add(checks.size() - 1);
+		return checks.size() - 1;
+	}
+
+	protected C getCheck(int index) {
+		return checks.get(index);
+	}
+
+	/**
+	 * Returns the indexes of the checks of the attribute type, or null if it has none.
+	 */
+	protected IntArrayList getChecksOfType(long typeId) {
+		return checksByType.get(typeId);
+	}
+
+	/**
+	 * Runs all registered checks, returning the concepts that fail each one in the order the checks were added.
+	 */
+	public List<ConceptSet> run() {
+		int conceptCount = relationships.getDictionary().size();
+		int tasks = (conceptCount + CONCEPTS_PER_TASK - 1) / CONCEPTS_PER_TASK;
+		List<RoaringBitmap[]> partialResults = IntStream.range(0, tasks).parallel()
+				.mapToObj(task -> scan(task * CONCEPTS_PER_TASK, Math.min(conceptCount, (task + 1) * CONCEPTS_PER_TASK)))
+				.toList();
+		List<ConceptSet> results = new ArrayList<>(checks.size());
+		for (int check = 0; check < checks.size(); check++) {
+			RoaringBitmap failures = new RoaringBitmap();
+			for (RoaringBitmap[] partialResult : partialResults) {
+				failures.or(partialResult[check]);
+			}
+			results.add(new ConceptSet(relationships.getDictionary(), failures));
+		}
+		return results;
+	}
+
+	private RoaringBitmap[] scan(int fromOrdinal, int toOrdinal) {
+		RoaringBitmap[] failures = new RoaringBitmap[checks.size()];
+		for (int check = 0; check < failures.length; check++) {
+			failures[check] = new RoaringBitmap();
+		}
+		for (int ordinal = fromOrdinal; ordinal < toOrdinal; ordinal++) {
+			visitConcept(ordinal, relationships.getRowsStart(ordinal), relationships.getRowsEnd(ordinal), failures);
+		}
+		return failures;
+	}
+
+	/**
+	 * Adds the concept to the failures of each check it fails, given the range of rows holding its relationships.
+	 */
+	protected abstract void visitConcept(int ordinal, int start, int end, RoaringBitmap[] failures);
+}
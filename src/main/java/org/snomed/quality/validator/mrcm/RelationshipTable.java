@@ -0,0 +1,227 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.ihtsdo.otf.snomedboot.domain.ConceptConstants;
+import org.ihtsdo.otf.snomedboot.factory.ImpotentComponentFactory;
+
+import java.io.*;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The active attribute relationships of one view of the release, concrete values included, grouped by source concept.
+ * Rows of a concept are contiguous and located through an offset array indexed by {@link ConceptDictionary} ordinal.
+ * Values are destination concept ids, or negative codes for concrete values so the two can be compared alike.
+ * Is-a relationships are left out, see {@link ConceptHierarchy}.
+ */
+public class RelationshipTable {
+
+	private final ConceptDictionary dictionary;
+	private final int[] offsets;
+	private final int[] groups;
+	private final long[] typeIds;
+	private final long[] values;
+	private final String[] concreteValues;
+
+	private RelationshipTable(ConceptDictionary dictionary, int[] offsets, int[] groups, long[] typeIds, long[] values, String[] concreteValues) {
+		this.dictionary = dictionary;
+		this.offsets = offsets;
+		this.groups = groups;
+		this.typeIds = typeIds;
+		this.values = values;
+		this.concreteValues = concreteValues;
+	}
+
+	public ConceptDictionary getDictionary() {
+		return dictionary;
+	}
+
+	public int size() {
+		return groups.length;
+	}
+
+	/**
+	 * The first row of the concept, its rows run up to {@link #getRowsEnd}.
+	 */
+	public int getRowsStart(int conceptOrdinal) {
+		return offsets[conceptOrdinal];
+	}
+
+	public int getRowsEnd(int conceptOrdinal) {
+		return offsets[conceptOrdinal + 1];
+	}
+
+	public int getGroup(int row) {
+		return groups[row];
+	}
+
+	public long getTypeId(int row) {
+		return typeIds[row];
+	}
+
+	public long getValue(int row) {
+		return values[row];
+	}
+
+	public static boolean isConcreteValue(long value) {
+		return value < 0;
+	}
+
+	public String getConcreteValue(long value) {
+		return concreteValues[(int) -(value + 1)];
+	}
+
+	/**
+	 * Collects the relationship rows of a view while the release is loaded, or from a previously saved copy.
+	 * Rows may be added from several threads.
+	 */
+	public static class Builder extends ImpotentComponentFactory {
+
+		private static final int FILE_VERSION = 1;
+
+		private final String characteristicTypeId;
+		private final LongArrayList sourceIds = new LongArrayList();
+		private final IntArrayList groups = new IntArrayList();
+		private final LongArrayList typeIds = new LongArrayList();
+		private final LongArrayList values = new LongArrayList();
+		private final Map<String, Integer> concreteValueCodes = new HashMap<>();
+		private final List<String> concreteValues = new ArrayList<>();
+
+		public Builder(ContentType contentType) {
+			this.characteristicTypeId = contentType == ContentType.STATED ? ConceptConstants.STATED_RELATIONSHIP : ConceptConstants.INFERRED_RELATIONSHIP;
+		}
+
+		@Override
+		public void newRelationshipState(String id, String effectiveTime, String active, String moduleId, String sourceId, String destinationId,
+				String relationshipGroup, String typeId, String characteristicTypeId, String modifierId) {
+			if ("1".equals(active) && this.characteristicTypeId.equals(characteristicTypeId) && !ConceptConstants.isA.equals(typeId)) {
+				add(Long.parseLong(sourceId), Integer.parseInt(relationshipGroup), Long.parseLong(typeId), Long.parseLong(destinationId));
+			}
+		}
+
+		@Override
+		public void newConcreteRelationshipState(String id, String effectiveTime, String active, String moduleId, String sourceId, String value,
+				String relationshipGroup, String typeId, String characteristicTypeId, String modifierId) {
+			if ("1".equals(active) && this.characteristicTypeId.equals(characteristicTypeId)) {
+				add(Long.parseLong(sourceId), Integer.parseInt(relationshipGroup), Long.parseLong(typeId), value);
+			}
+		}
+
+		/**
+		 * Adds the stated relationships that were converted from OWL axioms, they don't pass through the component factories.
+		 */
+		public void addAxiomRelationships(AxiomRelationshipStore axiomRelationships) {
+			for (int row = 0; row < axiomRelationships.size(); row++) {
+				if (axiomRelationships.isConcrete(row)) {
+					add(axiomRelationships.getSourceId(row), axiomRelationships.getGroup(row), axiomRelationships.getTypeId(row), axiomRelationships.getConcreteValue(row));
+				} else if (axiomRelationships.getTypeId(row) != Long.parseLong(ConceptConstants.isA)) {
+					add(axiomRelationships.getSourceId(row), axiomRelationships.getGroup(row), axiomRelationships.getTypeId(row), axiomRelationships.getDestinationId(row));
+				}
+			}
+		}
+
+		public synchronized void add(long sourceId, int group, long typeId, long destinationId) {
+			sourceIds.add(sourceId);
+			groups.add(group);
+			typeIds.add(typeId);
+			values.add(destinationId);
+		}
+
+		public synchronized void add(long sourceId, int group, long typeId, String concreteValue) {
+			int code = concreteValueCodes.computeIfAbsent(concreteValue, v -> {
+				concreteValues.add(v);
+				return concreteValues.size() - 1;
+			});
+			add(sourceId, group, typeId, -(code + 1L));
+		}
+
+		/**
+		 * Saves the rows so the table can be rebuilt without loading the release again. The file is replaced atomically.
+		 */
+		public synchronized void write(File file) throws IOException {
+			File temporaryFile = Files.createTempFile(file.getParentFile().toPath(), file.getName(), ".tmp").toFile();
+			try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(new FileOutputStream(temporaryFile)))) {
+				out.writeInt(FILE_VERSION);
+				out.writeInt(concreteValues.size());
+				for (String concreteValue : concreteValues) {
+					out.writeUTF(concreteValue);
+				}
+				out.writeInt(sourceIds.size());
+				for (int i = 0; i < sourceIds.size(); i++) {
+					out.writeLong(sourceIds.getLong(i));
+					out.writeInt(groups.getInt(i));
+					out.writeLong(typeIds.getLong(i));
+					out.writeLong(values.getLong(i));
+				}
+			}
+			Files.move(temporaryFile.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		public synchronized void read(File file) throws IOException {
+			try (DataInputStream in = new DataInputStream(new BufferedInputStream(new FileInputStream(file)))) {
+				int version = in.readInt();
+				if (version != FILE_VERSION) {
+					throw new IOException("Unsupported relationship table version " + version + " in " + file);
+				}
+				int concreteValueCount = in.readInt();
+				String[] savedConcreteValues = new String[concreteValueCount];
+				for (int i = 0; i < concreteValueCount; i++) {
+					savedConcreteValues[i] = in.readUTF();
+				}
+				int rows = in.readInt();
+				for (int i = 0; i < rows; i++) {
+					long sourceId = in.readLong();
+					int group = in.readInt();
+					long typeId = in.readLong();
+					long value = in.readLong();
+					if (isConcreteValue(value)) {
+						long code = -(value + 1);
+						if (code >= concreteValueCount) {
+							throw new IOException("Concrete value code " + code + " out of range in " + file);
+						}
+						add(sourceId, group, typeId, savedConcreteValues[(int) code]);
+					} else {
+						add(sourceId, group, typeId, value);
+					}
+				}
+			}
+		}
+
+		/**
+		 * Sorts the rows by source concept. Rows of concepts missing from the dictionary are dropped.
+		 */
+		public synchronized RelationshipTable build(ConceptDictionary dictionary) {
+			int[] offsets = new int[dictionary.size() + 1];
+			int[] ordinals = new int[sourceIds.size()];
+			for (int i = 0; i < sourceIds.size(); i++) {
+				ordinals[i] = dictionary.getOrdinal(sourceIds.getLong(i));
+				if (ordinals[i] != ConceptDictionary.NOT_FOUND) {
+					offsets[ordinals[i] + 1]++;
+				}
+			}
+			for (int i = 1; i < offsets.length; i++) {
+				offsets[i] += offsets[i - 1];
+			}
+			int rows = offsets[offsets.length - 1];
+			int[] sortedGroups = new int[rows];
+			long[] sortedTypeIds = new long[rows];
+			long[] sortedValues = new long[rows];
+			int[] positions = new int[dictionary.size()];
+			System.arraycopy(offsets, 0, positions, 0, positions.length);
+			for (int i = 0; i < ordinals.length; i++) {
+				if (ordinals[i] != ConceptDictionary.NOT_FOUND) {
+					int row = positions[ordinals[i]]++;
+					sortedGroups[row] = groups.getInt(i);
+					sortedTypeIds[row] = typeIds.getLong(i);
+					sortedValues[row] = values.getLong(i);
+				}
+			}
+			return new RelationshipTable(dictionary, offsets, sortedGroups, sortedTypeIds, sortedValues, concreteValues.toArray(new String[0]));
+		}
+	}
+}
@@ -1,16 +1,17 @@
 package org.snomed.quality.validator.mrcm;
 
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.LongList;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.apache.commons.lang3.StringUtils;
 import org.ihtsdo.otf.sqs.service.SnomedQueryService;
 import org.ihtsdo.otf.sqs.service.dto.ConceptResult;
 import org.ihtsdo.otf.sqs.service.dto.ConceptResults;
-import org.ihtsdo.otf.sqs.service.exception.ConceptNotFoundException;
 import org.ihtsdo.otf.sqs.service.exception.ServiceException;
 import org.snomed.quality.validator.mrcm.model.ReferenceSetMember;
 
 import java.io.IOException;
 import java.util.*;
-import java.util.stream.Collectors;
 
 public class SEPRefsetValidationService {
     private static final String BODY_STRUCTURE_SEMANTIC_TAG = "body structure";
@@ -62,255 +63,245 @@ public class SEPRefsetValidationService {
         }
     }
 
-    public void validate(SnomedQueryService queryService, ValidationRun run) throws ServiceException, IOException {
-        Set<String> exclusionList = getExclusionList(queryService);
-        List<ConceptResult> bodyStructureConcepts = getAllBodyStructureConcepts(queryService);
-
-        validateActiveReferenceAndTargetComponents(run, queryService);
-        validateDuplicateReferenceComponents(run, queryService);
-        validateDuplicateTargetComponents(run, queryService);
-        validateAnatomyStructureConceptInSEPRefset(run, queryService, exclusionList);
-        validatePartConceptInSPRefset(run, queryService);
-        validateAllOrEntireConceptInSERefset(run, queryService, exclusionList);
-        validateBodyStructureConcepts(run, queryService, bodyStructureConcepts);
-        validateParentConceptsOfTargetComponents(run, queryService);
-    }
+    /**
+     * Body structures that are not expected to follow the SEP naming rules, excluded with their descendants.
+     */
+    public static final List<String> DEFAULT_EXCLUSION_ROOTS = List.of("4421005", "122453002", "51576004", "280115004", "91832008", "258331007", "118956008",
+            "278001007", "39801007", "361083003", "21229009", "87100004", "420864000", "698969006", "279228004", "698968003", "244023005", "123957003");
+
+    private final long[] exclusionRoots;
 
-    // 1. For active members, all referenced components and target components are active
-    private void validateActiveReferenceAndTargetComponents(ValidationRun run, SnomedQueryService queryService) throws ServiceException {
-        Assertion assertionForReferenceComponentInSERefset = new Assertion(UUID.fromString(SEPAssertionType.ACTIVE_REFERENCED_COMPONENT_SE_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.ACTIVE_REFERENCED_COMPONENT_SE_REFSET.getAssertionText(), Assertion.FailureType.ERROR);
-        run.addCompletedAssertion(assertionForReferenceComponentInSERefset);
-        Assertion assertionForTargetComponentInSERefset = new Assertion(UUID.fromString(SEPAssertionType.ACTIVE_TARGET_COMPONENT_SE_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.ACTIVE_TARGET_COMPONENT_SE_REFSET.getAssertionText(), Assertion.FailureType.ERROR);
-        run.addCompletedAssertion(assertionForTargetComponentInSERefset);
-        doValidateActiveReferenceAndTargetComponents(run.getAnatomyStructureAndEntireRefsets(), queryService, assertionForReferenceComponentInSERefset, assertionForTargetComponentInSERefset);
-
-        Assertion assertionForReferenceComponentInSPRefset = new Assertion(UUID.fromString(SEPAssertionType.ACTIVE_REFERENCED_COMPONENT_SP_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.ACTIVE_REFERENCED_COMPONENT_SP_REFSET.getAssertionText(), Assertion.FailureType.ERROR);
-        run.addCompletedAssertion(assertionForReferenceComponentInSPRefset);
-        Assertion assertionForTargetComponentInSPRefset = new Assertion(UUID.fromString(SEPAssertionType.ACTIVE_TARGET_COMPONENT_SP_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.ACTIVE_TARGET_COMPONENT_SP_REFSET.getAssertionText(), Assertion.FailureType.ERROR);
-        run.addCompletedAssertion(assertionForTargetComponentInSPRefset);
-        doValidateActiveReferenceAndTargetComponents(run.getAnatomyStructureAndPartRefsets(), queryService, assertionForReferenceComponentInSPRefset, assertionForTargetComponentInSPRefset);
+    public SEPRefsetValidationService() {
+        this(DEFAULT_EXCLUSION_ROOTS);
     }
 
-    private void doValidateActiveReferenceAndTargetComponents(List<ReferenceSetMember> referenceSetMembers, SnomedQueryService queryService, Assertion assertionForReferenceComponent, Assertion assertionForTargetComponent) throws ServiceException {
-        for (ReferenceSetMember item : referenceSetMembers) {
-            if (!item.active()) continue;
-            ConceptResult referencedConceptResult = getConceptResultOrNull(queryService, item.referencedComponentId());
-            if (referencedConceptResult == null || !referencedConceptResult.isActive()) {
-                assertionForReferenceComponent.getCurrentViolatedConceptIds().add(Long.parseLong(item.referencedComponentId()));
-                assertionForReferenceComponent.getCurrentViolatedConcepts().add(referencedConceptResult == null ? new ConceptResult(item.referencedComponentId()) : referencedConceptResult);
-            }
-            ConceptResult targetConceptResult = getConceptResultOrNull(queryService, item.otherValues()[0]);
-            if (targetConceptResult == null || !targetConceptResult.isActive()) {
-                assertionForTargetComponent.getCurrentViolatedConceptIds().add(Long.parseLong(item.otherValues()[0]));
-                assertionForTargetComponent.getCurrentViolatedConcepts().add(targetConceptResult == null ? new ConceptResult(item.otherValues()[0]) : targetConceptResult);
+    /**
+     * @throws IllegalArgumentException if a root is not a concept id
+     */
+    public SEPRefsetValidationService(List<String> exclusionRoots) {
+        this.exclusionRoots = new long[exclusionRoots.size()];
+        for (int i = 0; i < exclusionRoots.size(); i++) {
+            String root = exclusionRoots.get(i);
+            if (!root.matches("\\d{6,18}")) {
+                throw new IllegalArgumentException("SEP exclusion root '" + root + "' is not a concept id.");
             }
+            this.exclusionRoots[i] = Long.parseLong(root);
         }
     }
 
-    // 2. For all members (active or inactive) any referencedComponentId (S) should only appear once per refset
-    private void validateDuplicateReferenceComponents(ValidationRun run, SnomedQueryService queryService) throws ServiceException {
-        Assertion assertionForReferenceComponentInSERefset = new Assertion(UUID.fromString(SEPAssertionType.DUPLICATE_REFERENCED_COMPONENT_SE_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.DUPLICATE_REFERENCED_COMPONENT_SE_REFSET.getAssertionText(), Assertion.FailureType.WARNING);
-        run.addCompletedAssertion(assertionForReferenceComponentInSERefset);
-        doValidateDuplicateReferenceComponents(queryService, run.getAnatomyStructureAndEntireRefsets(), assertionForReferenceComponentInSERefset);
-
-        Assertion assertionForReferenceComponentInSPRefset = new Assertion(UUID.fromString(SEPAssertionType.DUPLICATE_REFERENCED_COMPONENT_SP_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.DUPLICATE_REFERENCED_COMPONENT_SP_REFSET.getAssertionText(), Assertion.FailureType.WARNING);
-        run.addCompletedAssertion(assertionForReferenceComponentInSPRefset);
-        doValidateDuplicateReferenceComponents(queryService, run.getAnatomyStructureAndPartRefsets(), assertionForReferenceComponentInSPRefset);
-    }
-
-    private void doValidateDuplicateReferenceComponents(SnomedQueryService queryService, List<ReferenceSetMember> referenceSetMembers, Assertion assertionForReferenceComponent) throws ServiceException {
-        Map<String, List<ReferenceSetMember>> referencedComponentToEntireRefsetsMap = referenceSetMembers.stream()
-                .filter(item -> item.active() || Integer.parseInt(item.effectiveTime()) >= 20210731)
-                .collect(Collectors.groupingBy(ReferenceSetMember::referencedComponentId, HashMap::new, Collectors.toCollection(ArrayList::new)));
-        for (Map.Entry<String, List<ReferenceSetMember>> entry : referencedComponentToEntireRefsetsMap.entrySet()) {
-            if (entry.getValue().size() > 1) {
-                assertionForReferenceComponent.getCurrentViolatedConceptIds().add(Long.parseLong(entry.getKey()));
-                ConceptResult conceptResult = getConceptResultOrNull(queryService, entry.getKey());
-                assertionForReferenceComponent.getCurrentViolatedConcepts().add(conceptResult == null ? new ConceptResult(entry.getKey()) : conceptResult);
-            }
+    public void validate(SnomedQueryService queryService, ValidationRun run) throws ServiceException, IOException {
+        ConceptSet exclusions = getExclusions(queryService, run);
+        ConceptHydrator conceptHydrator = run.getConceptHydrator() != null ? run.getConceptHydrator() : new ConceptHydrator(queryService);
+        List<ConceptResult> bodyStructureConcepts = getAllBodyStructureConcepts(queryService, run, conceptHydrator);
+        hydrateMemberConcepts(run, conceptHydrator);
+
+        Map<SEPAssertionType, Assertion> assertions = new EnumMap<>(SEPAssertionType.class);
+        for (SEPAssertionType type : SEPAssertionType.values()) {
+            assertions.put(type, new Assertion(UUID.fromString(type.getUuid()), ValidationType.SEP_REFSET_TYPE, type.getAssertionText(), getFailureType(type)));
         }
-    }
 
-    // 3. For all active members, the targetComponentId (E,P) should only appear once
-    private void validateDuplicateTargetComponents(ValidationRun run, SnomedQueryService queryService) throws ServiceException {
-        Assertion assertionForTargetComponentInSERefset = new Assertion(UUID.fromString(SEPAssertionType.DUPLICATE_TARGET_COMPONENT_SE_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.DUPLICATE_TARGET_COMPONENT_SE_REFSET.getAssertionText(), Assertion.FailureType.WARNING);
-        run.addCompletedAssertion(assertionForTargetComponentInSERefset);
-        doValidateDuplicateTargetComponents(queryService, run.getAnatomyStructureAndEntireRefsets(), assertionForTargetComponentInSERefset);
+        // Each refset is indexed once, then every rule is evaluated against the index in a single pass over its members
+        MemberIndex entireRefset = new MemberIndex(run, run.getAnatomyStructureAndEntireRefsets());
+        MemberIndex partRefset = new MemberIndex(run, run.getAnatomyStructureAndPartRefsets());
+        validateMembers(entireRefset, true, exclusions, conceptHydrator, assertions);
+        validateMembers(partRefset, false, exclusions, conceptHydrator, assertions);
+        validateBodyStructureConcepts(bodyStructureConcepts, entireRefset, partRefset, conceptHydrator, assertions);
 
-        Assertion assertionForTargetComponentInSPRefset = new Assertion(UUID.fromString(SEPAssertionType.DUPLICATE_TARGET_COMPONENT_SP_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.DUPLICATE_TARGET_COMPONENT_SP_REFSET.getAssertionText(), Assertion.FailureType.WARNING);
-        run.addCompletedAssertion(assertionForTargetComponentInSPRefset);
-        doValidateDuplicateTargetComponents(queryService, run.getAnatomyStructureAndPartRefsets(), assertionForTargetComponentInSPRefset);
+        // Published only once their violations are complete, other validation types read the run's assertions concurrently
+        assertions.values().forEach(run::addCompletedAssertion);
     }
 
-    private void doValidateDuplicateTargetComponents(SnomedQueryService queryService, List<ReferenceSetMember> referenceSetMembers, Assertion assertionForTargetComponent) throws ServiceException {
-        Map<String, List<ReferenceSetMember>> targetComponentToPartRefsetsMap = referenceSetMembers.stream().filter(ReferenceSetMember::active).collect(
-                Collectors.groupingBy(item -> item.otherValues()[0], HashMap::new, Collectors.toCollection(ArrayList::new))
-        );
-        for (Map.Entry<String, List<ReferenceSetMember>> entry : targetComponentToPartRefsetsMap.entrySet()) {
-            if (entry.getValue().size() > 1) {
-                assertionForTargetComponent.getCurrentViolatedConceptIds().add(Long.parseLong(entry.getKey()));
-                ConceptResult conceptResult = getConceptResultOrNull(queryService, entry.getKey());
-                assertionForTargetComponent.getCurrentViolatedConcepts().add(conceptResult == null ? new ConceptResult(entry.getKey()) : conceptResult);
-            }
-        }
+    private static Assertion.FailureType getFailureType(SEPAssertionType type) {
+        return switch (type) {
+            case DUPLICATE_REFERENCED_COMPONENT_SE_REFSET, DUPLICATE_REFERENCED_COMPONENT_SP_REFSET, DUPLICATE_TARGET_COMPONENT_SE_REFSET,
+                 DUPLICATE_TARGET_COMPONENT_SP_REFSET, MISSING_ALL_OR_ENTIRE_CONCEPTS_FROM_SE_REFSET, MISSING_PART_CONCEPTS_FROM_SE_REFSET,
+                 INVALID_PAIR_OF_TARGET_AND_REFERENCED_COMPONENTS_SEP_REFSET -> Assertion.FailureType.WARNING;
+            default -> Assertion.FailureType.ERROR;
+        };
     }
 
-    // 4. The FSN for an S concept must contain the word Structure (case insensitive match) and must not start with the word Entire, All or Part
-    private void validateAnatomyStructureConceptInSEPRefset(ValidationRun run, SnomedQueryService queryService, Set<String> exclusionList) throws ServiceException {
-        Assertion assertion = new Assertion(UUID.fromString(SEPAssertionType.INVALID_STRUCTURE_CONCEPT_SEP_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.INVALID_STRUCTURE_CONCEPT_SEP_REFSET.getAssertionText(), Assertion.FailureType.ERROR);
-        run.addCompletedAssertion(assertion);
-        doValidateAnatomyStructureConceptInSEPRefset(run.getAnatomyStructureAndEntireRefsets(), exclusionList, queryService, assertion);
-        doValidateAnatomyStructureConceptInSEPRefset(run.getAnatomyStructureAndPartRefsets(), exclusionList, queryService, assertion);
-    }
+    private void validateMembers(MemberIndex refset, boolean entireRefset, ConceptSet exclusions, ConceptHydrator conceptHydrator,
+            Map<SEPAssertionType, Assertion> assertions) throws ServiceException {
+        Assertion activeReferencedComponents = assertions.get(entireRefset ? SEPAssertionType.ACTIVE_REFERENCED_COMPONENT_SE_REFSET : SEPAssertionType.ACTIVE_REFERENCED_COMPONENT_SP_REFSET);
+        Assertion activeTargetComponents = assertions.get(entireRefset ? SEPAssertionType.ACTIVE_TARGET_COMPONENT_SE_REFSET : SEPAssertionType.ACTIVE_TARGET_COMPONENT_SP_REFSET);
+        for (ReferenceSetMember item : refset.activeMembers) {
+            String referencedComponentId = item.referencedComponentId();
+            String targetComponentId = item.otherValues()[0];
+            ConceptResult referencedConceptResult = conceptHydrator.getConceptOrNull(referencedComponentId);
+            ConceptResult targetConceptResult = conceptHydrator.getConceptOrNull(targetComponentId);
+
+            // 1. For active members, all referenced components and target components are active
+            if (referencedConceptResult == null || !referencedConceptResult.isActive()) {
+                addViolation(activeReferencedComponents, referencedComponentId, referencedConceptResult);
+            }
+            if (targetConceptResult == null || !targetConceptResult.isActive()) {
+                addViolation(activeTargetComponents, targetComponentId, targetConceptResult);
+            }
 
-    private void doValidateAnatomyStructureConceptInSEPRefset(List<ReferenceSetMember> referenceSetMembers, Set<String> exclusionList, SnomedQueryService queryService, Assertion assertion) throws ServiceException {
-        for (ReferenceSetMember item : referenceSetMembers) {
-            if (item.active() && !exclusionList.contains(item.referencedComponentId())) {
-                ConceptResult referencedConceptResult = getConceptResultOrNull(queryService, item.referencedComponentId());
-                if (referencedConceptResult != null && referencedConceptResult.isActive()) {
-                    String fsnWithoutSemanticTag = referencedConceptResult.getFsn().replaceAll("[/(]" + BODY_STRUCTURE_SEMANTIC_TAG + "[/)]$", "");
-                    if (!StringUtils.containsAnyIgnoreCase(fsnWithoutSemanticTag, STRUCTURE) || fsnWithoutSemanticTag.startsWith(ALL) || fsnWithoutSemanticTag.startsWith(ENTIRE) || fsnWithoutSemanticTag.startsWith(PART)) {
-                        assertion.getCurrentViolatedConceptIds().add(Long.parseLong(item.referencedComponentId()));
-                        assertion.getCurrentViolatedConcepts().add(referencedConceptResult);
-                    }
+            // 4. The FSN for an S concept must contain the word Structure (case insensitive match) and must not start with the word Entire, All or Part
+            if (!exclusions.contains(Long.parseLong(referencedComponentId)) && referencedConceptResult != null && referencedConceptResult.isActive()) {
+                String fsnWithoutSemanticTag = referencedConceptResult.getFsn().replaceAll("[/(]" + BODY_STRUCTURE_SEMANTIC_TAG + "[/)]$", "");
+                if (!StringUtils.containsAnyIgnoreCase(fsnWithoutSemanticTag, STRUCTURE) || fsnWithoutSemanticTag.startsWith(ALL) || fsnWithoutSemanticTag.startsWith(ENTIRE) || fsnWithoutSemanticTag.startsWith(PART)) {
+                    addViolation(assertions.get(SEPAssertionType.INVALID_STRUCTURE_CONCEPT_SEP_REFSET), referencedComponentId, referencedConceptResult);
                 }
             }
-        }
-    }
 
-    // 5. The FSN for a P concept must start with the word Part (case sensitive match) or contain the word part
-    private void validatePartConceptInSPRefset(ValidationRun run, SnomedQueryService queryService) throws ServiceException {
-        Assertion assertion = new Assertion(UUID.fromString(SEPAssertionType.INVALID_PART_CONCEPT_SP_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.INVALID_PART_CONCEPT_SP_REFSET.getAssertionText(), Assertion.FailureType.ERROR);
-        run.addCompletedAssertion(assertion);
-        for (ReferenceSetMember item : run.getAnatomyStructureAndPartRefsets()) {
-            if (item.active()) {
-                ConceptResult referencedConceptResult = getConceptResultOrNull(queryService, item.otherValues()[0]);
-                if (referencedConceptResult != null && referencedConceptResult.isActive()) {
-                    String fsn = referencedConceptResult.getFsn();
-                    if (!fsn.startsWith(PART) && !fsn.contains("part")) {
-                        assertion.getCurrentViolatedConceptIds().add(Long.parseLong(item.otherValues()[0]));
-                        assertion.getCurrentViolatedConcepts().add(referencedConceptResult);
+            if (targetConceptResult != null && targetConceptResult.isActive()) {
+                String fsn = targetConceptResult.getFsn();
+                if (entireRefset) {
+                    // 6. The FSN for an E concept must start with the word Entire or the word All (case sensitive match)
+                    if (!exclusions.contains(Long.parseLong(targetComponentId)) && !fsn.startsWith(ENTIRE) && !fsn.startsWith(ALL)) {
+                        addViolation(assertions.get(SEPAssertionType.INVALID_ALL_OR_ENTIRE_CONCEPT_SE_REFSET), targetComponentId, targetConceptResult);
                     }
+                } else if (!fsn.startsWith(PART) && !fsn.contains("part")) {
+                    // 5. The FSN for a P concept must start with the word Part (case sensitive match) or contain the word part
+                    addViolation(assertions.get(SEPAssertionType.INVALID_PART_CONCEPT_SP_REFSET), targetComponentId, targetConceptResult);
                 }
             }
-        }
-    }
 
-    // 6. The FSN for an E concept must start with the word Entire or the word All (case sensitive match)
-    private void validateAllOrEntireConceptInSERefset(ValidationRun run, SnomedQueryService queryService, Set<String> exclusionList) throws ServiceException {
-        Assertion assertion = new Assertion(UUID.fromString(SEPAssertionType.INVALID_ALL_OR_ENTIRE_CONCEPT_SE_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.INVALID_ALL_OR_ENTIRE_CONCEPT_SE_REFSET.getAssertionText(), Assertion.FailureType.ERROR);
-        run.addCompletedAssertion(assertion);
-        for (ReferenceSetMember item : run.getAnatomyStructureAndEntireRefsets()) {
-            if (item.active() && !exclusionList.contains(item.otherValues()[0])) {
-                ConceptResult referencedConceptResult = getConceptResultOrNull(queryService, item.otherValues()[0]);
-                if (referencedConceptResult != null && referencedConceptResult.isActive()) {
-                    String fsn = referencedConceptResult.getFsn();
-                    if (!fsn.startsWith(ENTIRE) && !fsn.startsWith(ALL)) {
-                        assertion.getCurrentViolatedConceptIds().add(Long.parseLong(item.otherValues()[0]));
-                        assertion.getCurrentViolatedConcepts().add(referencedConceptResult);
-                    }
-                }
+            // 9. For both refsets, the 'S' concept should be an inferred parent the targetComponentId (E or P).
+            if (targetConceptResult != null && !targetConceptResult.getParents().contains(referencedComponentId)) {
+                addViolation(assertions.get(SEPAssertionType.INVALID_PAIR_OF_TARGET_AND_REFERENCED_COMPONENTS_SEP_REFSET), targetComponentId, targetConceptResult);
             }
         }
+
+        // 2. For all members (active or inactive) any referencedComponentId (S) should only appear once per refset
+        Assertion duplicateReferencedComponents = assertions.get(entireRefset ? SEPAssertionType.DUPLICATE_REFERENCED_COMPONENT_SE_REFSET : SEPAssertionType.DUPLICATE_REFERENCED_COMPONENT_SP_REFSET);
+        for (String referencedComponentId : refset.duplicateReferencedComponents) {
+            addViolation(duplicateReferencedComponents, referencedComponentId, conceptHydrator.getConceptOrNull(referencedComponentId));
+        }
+
+        // 3. For all active members, the targetComponentId (E,P) should only appear once
+        Assertion duplicateTargetComponents = assertions.get(entireRefset ? SEPAssertionType.DUPLICATE_TARGET_COMPONENT_SE_REFSET : SEPAssertionType.DUPLICATE_TARGET_COMPONENT_SP_REFSET);
+        for (String targetComponentId : refset.duplicateTargetComponents) {
+            addViolation(duplicateTargetComponents, targetComponentId, conceptHydrator.getConceptOrNull(targetComponentId));
+        }
     }
 
     // 7. All body structure concepts that start with the word 'Entire' or 'All' should appear in the SE refset
     // Exception: If a S concept has both E concept and All concept, the E concept should be included for the SE refset. But All concept would not be required for the SE refset
     // 8. All body structure concepts that start with the word 'Part' should appear in the SP refset
-    private void validateBodyStructureConcepts(ValidationRun run, SnomedQueryService queryService, List<ConceptResult> bodyStructureConcepts) throws ServiceException {
-        Assertion assertionForSERefset = new Assertion(UUID.fromString(SEPAssertionType.MISSING_ALL_OR_ENTIRE_CONCEPTS_FROM_SE_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.MISSING_ALL_OR_ENTIRE_CONCEPTS_FROM_SE_REFSET.getAssertionText(), Assertion.FailureType.WARNING);
-        run.addCompletedAssertion(assertionForSERefset);
-
-        Assertion assertionForSPRefset = new Assertion(UUID.fromString(SEPAssertionType.MISSING_PART_CONCEPTS_FROM_SE_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.MISSING_PART_CONCEPTS_FROM_SE_REFSET.getAssertionText(), Assertion.FailureType.WARNING);
-        run.addCompletedAssertion(assertionForSPRefset);
-
-        Set<String> existingEntires = run.getAnatomyStructureAndEntireRefsets().stream().filter(ReferenceSetMember::active).map(item -> item.otherValues()[0]).collect(Collectors.toSet());
-        Set<String> existingParts = run.getAnatomyStructureAndPartRefsets().stream().filter(ReferenceSetMember::active).map(item -> item.otherValues()[0]).collect(Collectors.toSet());
+    private void validateBodyStructureConcepts(List<ConceptResult> bodyStructureConcepts, MemberIndex entireRefset, MemberIndex partRefset,
+            ConceptHydrator conceptHydrator, Map<SEPAssertionType, Assertion> assertions) throws ServiceException {
+        Assertion assertionForSERefset = assertions.get(SEPAssertionType.MISSING_ALL_OR_ENTIRE_CONCEPTS_FROM_SE_REFSET);
+        Assertion assertionForSPRefset = assertions.get(SEPAssertionType.MISSING_PART_CONCEPTS_FROM_SE_REFSET);
         for (ConceptResult conceptResult : bodyStructureConcepts) {
             if (!conceptResult.isActive()) continue;
             String fsn = conceptResult.getFsn();
+            long conceptId = Long.parseLong(conceptResult.getId());
             if (fsn.startsWith(ENTIRE)) {
-                if (!existingEntires.contains(conceptResult.getId())) {
-                    assertionForSERefset.getCurrentViolatedConceptIds().add(Long.parseLong(conceptResult.getId()));
-                    assertionForSERefset.getCurrentViolatedConcepts().add(conceptResult);
+                if (!entireRefset.activeTargets.contains(conceptId)) {
+                    addViolation(assertionForSERefset, conceptResult.getId(), conceptResult);
                 }
             } else if (fsn.startsWith(ALL)) {
-                if (!existingEntires.contains(conceptResult.getId())) {
-                    validateBodyStructureOfAllConcepts(run, queryService, conceptResult, assertionForSERefset);
+                if (!entireRefset.activeTargets.contains(conceptId) && !hasParentWithEntireConcept(conceptResult, entireRefset, conceptHydrator)) {
+                    addViolation(assertionForSERefset, conceptResult.getId(), conceptResult);
                 }
-            } else if (fsn.startsWith(PART) && (!existingParts.contains(conceptResult.getId()))) {
-                assertionForSPRefset.getCurrentViolatedConceptIds().add(Long.parseLong(conceptResult.getId()));
-                assertionForSPRefset.getCurrentViolatedConcepts().add(conceptResult);
+            } else if (fsn.startsWith(PART) && (!partRefset.activeTargets.contains(conceptId))) {
+                addViolation(assertionForSPRefset, conceptResult.getId(), conceptResult);
             }
         }
     }
 
-    private void validateBodyStructureOfAllConcepts(ValidationRun run, SnomedQueryService queryService, ConceptResult conceptResult, Assertion assertionForSERefset) throws ServiceException {
-        Set<String> parent = conceptResult.getParents();
-        boolean existingEntireRefsetFound = false;
-        for (String parentConceptId : parent) {
-            Set<ReferenceSetMember> members = run.getAnatomyStructureAndEntireRefsets().stream().filter(item -> item.active() && item.referencedComponentId().equals(parentConceptId)).collect(Collectors.toSet());
-            for (ReferenceSetMember member : members) {
-                ConceptResult concept = getConceptResultOrNull(queryService, member.otherValues()[0]);
+    private boolean hasParentWithEntireConcept(ConceptResult conceptResult, MemberIndex entireRefset, ConceptHydrator conceptHydrator) throws ServiceException {
+        for (String parentConceptId : conceptResult.getParents()) {
+            for (String targetComponentId : entireRefset.activeTargetsByReferencedComponent.getOrDefault(parentConceptId, Collections.emptyList())) {
+                ConceptResult concept = conceptHydrator.getConceptOrNull(targetComponentId);
                 if (concept != null && concept.getFsn().startsWith(ENTIRE)) {
-                    existingEntireRefsetFound = true;
-                    break;
+                    return true;
                 }
             }
-            if (existingEntireRefsetFound) break;
-        }
-        if (!existingEntireRefsetFound) {
-            assertionForSERefset.getCurrentViolatedConceptIds().add(Long.parseLong(conceptResult.getId()));
-            assertionForSERefset.getCurrentViolatedConcepts().add(conceptResult);
         }
+        return false;
     }
 
-    // 9. For both refsets, the 'S' concept should be an inferred parent the targetComponentId (E or P).
-    private void validateParentConceptsOfTargetComponents(ValidationRun run, SnomedQueryService queryService) throws ServiceException {
-        Assertion assertion = new Assertion(UUID.fromString(SEPAssertionType.INVALID_PAIR_OF_TARGET_AND_REFERENCED_COMPONENTS_SEP_REFSET.getUuid()), ValidationType.SEP_REFSET_TYPE, SEPAssertionType.INVALID_PAIR_OF_TARGET_AND_REFERENCED_COMPONENTS_SEP_REFSET.getAssertionText(), Assertion.FailureType.WARNING);
-        run.addCompletedAssertion(assertion);
-        doValidateParentConceptsOfTargetComponents(run.getAnatomyStructureAndEntireRefsets(), queryService, assertion);
-        doValidateParentConceptsOfTargetComponents(run.getAnatomyStructureAndPartRefsets(), queryService, assertion);
+    private static void addViolation(Assertion assertion, String conceptId, ConceptResult conceptResult) {
+        assertion.getCurrentViolatedConceptIds().add(Long.parseLong(conceptId));
+        assertion.getCurrentViolatedConcepts().add(conceptResult == null ? new ConceptResult(conceptId) : conceptResult);
     }
 
-    private void doValidateParentConceptsOfTargetComponents(List<ReferenceSetMember> referenceSetMembers, SnomedQueryService queryService, Assertion assertion) throws ServiceException {
-        for (ReferenceSetMember item : referenceSetMembers) {
-            if (item.active()) {
-                ConceptResult conceptResult = getConceptResultOrNull(queryService, item.otherValues()[0]);
-                if (conceptResult != null && !conceptResult.getParents().contains(item.referencedComponentId())) {
-                    assertion.getCurrentViolatedConceptIds().add(Long.parseLong(item.otherValues()[0]));
-                    assertion.getCurrentViolatedConcepts().add(conceptResult);
+    /**
+     * The members of one SEP refset indexed by referenced and target component, built in one pass over the members.
+     */
+    private static final class MemberIndex {
+
+        private final List<ReferenceSetMember> activeMembers = new ArrayList<>();
+        private final Map<String, List<String>> activeTargetsByReferencedComponent = new HashMap<>();
+        private final Set<String> duplicateReferencedComponents = new LinkedHashSet<>();
+        private final Set<String> duplicateTargetComponents = new LinkedHashSet<>();
+        private final ConceptSet activeTargets;
+
+        private MemberIndex(ValidationRun run, List<ReferenceSetMember> members) {
+            Set<String> referencedComponents = new HashSet<>();
+            Set<String> targetComponents = new HashSet<>();
+            for (ReferenceSetMember member : members) {
+                String targetComponentId = member.otherValues()[0];
+                if (member.active()) {
+                    activeMembers.add(member);
+                    activeTargetsByReferencedComponent.computeIfAbsent(member.referencedComponentId(), id -> new ArrayList<>()).add(targetComponentId);
+                    if (!targetComponents.add(targetComponentId)) {
+                        duplicateTargetComponents.add(targetComponentId);
+                    }
+                }
+                // Inactive members count towards duplicates from the 20210731 release on
+                if ((member.active() || Integer.parseInt(member.effectiveTime()) >= 20210731) && !referencedComponents.add(member.referencedComponentId())) {
+                    duplicateReferencedComponents.add(member.referencedComponentId());
                 }
             }
+            long[] activeTargetIds = activeMembers.stream().mapToLong(member -> Long.parseLong(member.otherValues()[0])).toArray();
+            ConceptDictionary dictionary = run.getConceptDictionary() != null ? run.getConceptDictionary() : ConceptDictionary.of(activeTargetIds);
+            activeTargets = ConceptSet.ofKnownConcepts(dictionary, activeTargetIds);
+        }
+    }
+
+    // All rules look up the referenced and target components of the members, so they are retrieved together up front
+    private void hydrateMemberConcepts(ValidationRun run, ConceptHydrator conceptHydrator) throws ServiceException {
+        LongOpenHashSet conceptIds = new LongOpenHashSet();
+        for (List<ReferenceSetMember> members : List.of(run.getAnatomyStructureAndEntireRefsets(), run.getAnatomyStructureAndPartRefsets())) {
+            for (ReferenceSetMember member : members) {
+                conceptIds.add(Long.parseLong(member.referencedComponentId()));
+                conceptIds.add(Long.parseLong(member.otherValues()[0]));
+            }
         }
+        conceptHydrator.hydrate(conceptIds);
     }
 
-    private ConceptResult getConceptResultOrNull(SnomedQueryService queryService, String conceptId) throws ServiceException {
-        try {
-            return queryService.retrieveConcept(conceptId);
-        } catch (ConceptNotFoundException e) {
-            return null;
+    /**
+     * The exclusion roots and all of their descendants, one walk down the hierarchy of the run from all roots together.
+     */
+    private ConceptSet getExclusions(SnomedQueryService queryService, ValidationRun run) throws ServiceException {
+        ConceptHierarchy hierarchy = run.getConceptHierarchy();
+        if (hierarchy == null) {
+            return getExclusionsFromQueryService(queryService);
         }
+        return hierarchy.descendantsOrSelf(ConceptSet.ofKnownConcepts(run.getConceptDictionary(), exclusionRoots));
     }
 
-    private Set<String> getExclusionList(SnomedQueryService queryService) {
-        List<ConceptResult> exclusionList = new ArrayList<>();
-        List<String> conceptIds = List.of("4421005", "122453002", "51576004", "280115004", "91832008", "258331007", "118956008", "278001007", "39801007", "361083003", "21229009", "87100004", "420864000", "698969006", "279228004", "698968003", "244023005", "123957003");
-        conceptIds.stream().parallel().forEach(conceptId -> {
-            try {
-                exclusionList.addAll(queryService.retrieveConceptDescendants(conceptId).items());
-            } catch (ServiceException e) {
-                throw new RuntimeException("Failed to get the exclusion list for SEP validation. Error: " + e.getMessage());
+    private ConceptSet getExclusionsFromQueryService(SnomedQueryService queryService) throws ServiceException {
+        LongOpenHashSet conceptIds = new LongOpenHashSet(exclusionRoots);
+        for (long root : exclusionRoots) {
+            for (ConceptResult descendant : queryService.retrieveConceptDescendants(String.valueOf(root)).items()) {
+                conceptIds.add(Long.parseLong(descendant.getId()));
             }
-        });
-        Set<String> result = new HashSet<>();
-        result.addAll(conceptIds);
-        result.addAll(exclusionList.stream().map(ConceptResult::getId).collect(Collectors.toSet()));
-        return result;
+        }
+        long[] exclusions = conceptIds.toLongArray();
+        return ConceptSet.ofKnownConcepts(ConceptDictionary.of(exclusions), exclusions);
     }
 
-    private List<ConceptResult> getAllBodyStructureConcepts(SnomedQueryService queryService) throws IOException, ServiceException {
+    private List<ConceptResult> getAllBodyStructureConcepts(SnomedQueryService queryService, ValidationRun run, ConceptHydrator conceptHydrator) throws IOException, ServiceException {
         List<ConceptResult> results = new ArrayList<>();
+        if (run.getSemanticTagIndex() != null) {
+            // Only the concepts tagged body structure are retrieved, the tag of the FSN returned is checked in case the concept has FSNs with other tags
+            LongList conceptIds = run.getSemanticTagIndex().getConcepts(BODY_STRUCTURE_SEMANTIC_TAG).toConceptIds();
+            Long2ObjectMap<ConceptResult> concepts = conceptHydrator.hydrate(conceptIds);
+            for (long conceptId : conceptIds) {
+                ConceptResult concept = concepts.get(conceptId);
+                if (concept != null && concept.getFsn().endsWith("(" + BODY_STRUCTURE_SEMANTIC_TAG + ")")) {
+                    results.add(concept);
+                }
+            }
+            return results;
+        }
         long totalConcept = queryService.getConceptCount();
         int offset = 0;
         int limit = 10000;
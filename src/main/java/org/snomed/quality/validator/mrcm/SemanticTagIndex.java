@@ -0,0 +1,76 @@
+package org.snomed.quality.validator.mrcm;
+
+import it.unimi.dsi.fastutil.longs.LongArrayList;
+import org.ihtsdo.otf.snomedboot.domain.ConceptConstants;
+import org.ihtsdo.otf.snomedboot.factory.ImpotentComponentFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The concepts of the release by the semantic tag of their active fully specified names, e.g. {@code body structure}.
+ * A concept with fully specified names in several languages is listed under the tag of each of them.
+ */
+public class SemanticTagIndex {
+
+	private final ConceptDictionary dictionary;
+	private final Map<String, ConceptSet> conceptsByTag;
+
+	private SemanticTagIndex(ConceptDictionary dictionary, Map<String, ConceptSet> conceptsByTag) {
+		this.dictionary = dictionary;
+		this.conceptsByTag = conceptsByTag;
+	}
+
+	/**
+	 * Returns the concepts having the semantic tag, given without the brackets.
+	 */
+	public ConceptSet getConcepts(String semanticTag) {
+		ConceptSet concepts = conceptsByTag.get(semanticTag);
+		return concepts != null ? concepts : ConceptSet.empty(dictionary);
+	}
+
+	public int getTagCount() {
+		return conceptsByTag.size();
+	}
+
+	/**
+	 * Returns the semantic tag of the term without the brackets, or null if the term has none.
+	 */
+	static String getSemanticTag(String term) {
+		if (term == null || !term.endsWith(")")) {
+			return null;
+		}
+		int start = term.lastIndexOf('(');
+		return start >= 0 ? term.substring(start + 1, term.length() - 1) : null;
+	}
+
+	/**
+	 * Collects the semantic tags while the descriptions of the release are loaded. Descriptions may be delivered from several threads.
+	 */
+	public static class Builder extends ImpotentComponentFactory {
+
+		private final Map<String, LongArrayList> conceptIdsByTag = new HashMap<>();
+
+		@Override
+		public void newDescriptionState(String id, String effectiveTime, String active, String moduleId, String conceptId, String languageCode,
+				String typeId, String term, String caseSignificanceId) {
+			if (!"1".equals(active) || !ConceptConstants.FSN.equals(typeId)) {
+				return;
+			}
+			String semanticTag = getSemanticTag(term);
+			if (semanticTag != null) {
+				add(Long.parseLong(conceptId), semanticTag);
+			}
+		}
+
+		synchronized void add(long conceptId, String semanticTag) {
+			conceptIdsByTag.computeIfAbsent(semanticTag, tag -> new LongArrayList()).add(conceptId);
+		}
+
+		public synchronized SemanticTagIndex build(ConceptDictionary dictionary) {
+			Map<String, ConceptSet> conceptsByTag = new HashMap<>();
+			conceptIdsByTag.forEach((tag, conceptIds) -> conceptsByTag.put(tag, ConceptSet.ofKnownConcepts(dictionary, conceptIds.toLongArray())));
+			return new SemanticTagIndex(dictionary, conceptsByTag);
+		}
+	}
+}
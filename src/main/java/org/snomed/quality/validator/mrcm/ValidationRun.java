@@ -1,6 +1,7 @@
 package org.snomed.quality.validator.mrcm;
 
 import org.snomed.quality.validator.mrcm.model.Attribute;
+import org.snomed.quality.validator.mrcm.model.AttributeDescriptor;
 import org.snomed.quality.validator.mrcm.model.Domain;
 import org.snomed.quality.validator.mrcm.model.ReferenceSetMember;
 
@@ -25,12 +26,21 @@ public final class ValidationRun {
 	private Set<String> moduleIds;
 	private final boolean reportSkippedAssertions;
 	private boolean fullSnapshotRelease;
+	private ConceptDictionary conceptDictionary;
+	private EclQueryCache eclQueryCache;
+	private ConceptHydrator conceptHydrator;
+	private ConceptHierarchy.Loader conceptHierarchyLoader;
+	private volatile ConceptHierarchy conceptHierarchy;
+	private final Object conceptHierarchyLock = new Object();
+	private SemanticTagIndex semanticTagIndex;
+	private Map<String, AttributeDescriptor> attributeDescriptors = Collections.emptyMap();
 
 	public ValidationRun(final String releaseDate, final ContentType contentType, final boolean reportSkippedAssertions) {
-		assertionsCompleted = new ArrayList<>();
-		assertionsIncomplete = new ArrayList<>();
+		// Assertions are added by the validation types running concurrently
+		assertionsCompleted = Collections.synchronizedList(new ArrayList<>());
+		assertionsIncomplete = Collections.synchronizedList(new ArrayList<>());
 		validationTypes = Arrays.asList(ValidationType.values());
-		assertionSkipped = new ArrayList<>();
+		assertionSkipped = Collections.synchronizedList(new ArrayList<>());
 		this.releaseDate = releaseDate;
 		this.contentType = contentType;
 		ungroupedAttributes = new HashSet<>();
@@ -76,19 +86,38 @@ public final class ValidationRun {
 	}
 
 	public Set<Assertion> getIncompleteAssertions() {
-		return new HashSet<>(assertionsIncomplete);
+		synchronized (assertionsIncomplete) {
+			return new HashSet<>(assertionsIncomplete);
+		}
 	}
 
 	public Set<Assertion> getFailedAssertions() {
-		return assertionsCompleted.stream().filter(Assertion::reportAsError).filter(Assertion::invalidConceptsFound).collect(Collectors.toSet());
+		synchronized (assertionsCompleted) {
+			return assertionsCompleted.stream().filter(Assertion::reportAsError).filter(Assertion::invalidConceptsFound).collect(Collectors.toSet());
+		}
 	}
 
 	public Set<Assertion> getPassedAssertions() {
-		return assertionsCompleted.stream().filter(Assertion::invalidConceptsNotFound).collect(Collectors.toSet());
+		synchronized (assertionsCompleted) {
+			return assertionsCompleted.stream().filter(Assertion::invalidConceptsNotFound).collect(Collectors.toSet());
+		}
 	}
 
 	public Set<Assertion> getAssertionsWithWarning() {
-		return assertionsCompleted.stream().filter(Assertion::reportAsWarning).filter(Assertion::invalidConceptsFound).collect(Collectors.toSet());
+		synchronized (assertionsCompleted) {
+			return assertionsCompleted.stream().filter(Assertion::reportAsWarning).filter(Assertion::invalidConceptsFound).collect(Collectors.toSet());
+		}
+	}
+
+	/**
+	 * Orders the assertions by the position of their validation type in {@link #getValidationTypes()}, keeping the order within each type.
+	 * Called once the validation types have completed.
+	 */
+	public void sortAssertionsByValidationType() {
+		Comparator<Assertion> byValidationType = Comparator.comparingInt(assertion -> validationTypes.indexOf(assertion.getValidationType()));
+		assertionsCompleted.sort(byValidationType);
+		assertionSkipped.sort(byValidationType);
+		assertionsIncomplete.sort(byValidationType);
 	}
 
 	public List<Assertion> getCompletedAssertions() {
@@ -167,6 +196,74 @@ public final class ValidationRun {
 		return anatomyStructureAndPartRefsets;
 	}
 
+	public void setConceptDictionary(ConceptDictionary conceptDictionary) {
+		this.conceptDictionary = conceptDictionary;
+	}
+
+	public ConceptDictionary getConceptDictionary() {
+		return conceptDictionary;
+	}
+
+	public void setEclQueryCache(EclQueryCache eclQueryCache) {
+		this.eclQueryCache = eclQueryCache;
+	}
+
+	public EclQueryCache getEclQueryCache() {
+		return eclQueryCache;
+	}
+
+	public void setConceptHydrator(ConceptHydrator conceptHydrator) {
+		this.conceptHydrator = conceptHydrator;
+	}
+
+	public ConceptHydrator getConceptHydrator() {
+		return conceptHydrator;
+	}
+
+	/**
+	 * Sets how the hierarchy is loaded, on the first call to {@link #getConceptHierarchy()}.
+	 * Only some validation types walk the hierarchy, so runs without them don't build it.
+	 */
+	public void setConceptHierarchyLoader(ConceptHierarchy.Loader conceptHierarchyLoader) {
+		this.conceptHierarchyLoader = conceptHierarchyLoader;
+	}
+
+	/**
+	 * Returns the hierarchy, loading it if this is the first call, or null if the run has no loader.
+	 */
+	public ConceptHierarchy getConceptHierarchy() {
+		ConceptHierarchy hierarchy = conceptHierarchy;
+		if (hierarchy != null || conceptHierarchyLoader == null) {
+			return hierarchy;
+		}
+		// Validation types running concurrently wait for the first to load it
+		synchronized (conceptHierarchyLock) {
+			if (conceptHierarchy == null) {
+				conceptHierarchy = conceptHierarchyLoader.load();
+			}
+			return conceptHierarchy;
+		}
+	}
+
+	public void setSemanticTagIndex(SemanticTagIndex semanticTagIndex) {
+		this.semanticTagIndex = semanticTagIndex;
+	}
+
+	public SemanticTagIndex getSemanticTagIndex() {
+		return semanticTagIndex;
+	}
+
+	public void setAttributeDescriptors(Map<String, AttributeDescriptor> attributeDescriptors) {
+		this.attributeDescriptors = attributeDescriptors;
+	}
+
+	/**
+	 * Returns the descriptor of the attribute resolved against the release, or null if the attributes have not been resolved.
+	 */
+	public AttributeDescriptor getAttributeDescriptor(String attributeId) {
+		return attributeDescriptors.get(attributeId);
+	}
+
 	@Override
 	public boolean equals(final Object o) {
 		if (this == o) return true;
@@ -0,0 +1,115 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.ihtsdo.otf.sqs.service.exception.ServiceException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinTask;
+
+/**
+ * Runs the tasks of a validation run on an executor, each one as soon as the tasks it depends on have completed.
+ * Tasks are named and can only depend on tasks submitted before them, so the dependencies always form a graph without cycles.
+ * When a task fails the tasks depending on it are not run, and {@link #awaitCompletion()} throws the failure once all other tasks are done.
+ * <p>
+ * Within a task the independent units of work of a validation type, e.g. each attribute, are spread over the pool with {@link #invokeAll(List, UnitOfWork)}.
+ */
+public class ValidationScheduler {
+
+	@FunctionalInterface
+	public interface ValidationTask {
+		void run() throws ServiceException, IOException;
+	}
+
+	@FunctionalInterface
+	public interface UnitOfWork<T, R> {
+		R validate(T unit) throws ServiceException;
+	}
+
+	private final Executor executor;
+	private final Map<String, CompletableFuture<Void>> tasks = new LinkedHashMap<>();
+
+	public ValidationScheduler(Executor executor) {
+		this.executor = executor;
+	}
+
+	/**
+	 * Schedules the task to run once the named tasks have completed.
+	 */
+	public void submit(String name, ValidationTask task, String... dependencies) {
+		if (tasks.containsKey(name)) {
+			throw new IllegalArgumentException("Task " + name + " has already been submitted.");
+		}
+		CompletableFuture<?>[] prerequisites = new CompletableFuture<?>[dependencies.length];
+		for (int i = 0; i < dependencies.length; i++) {
+			prerequisites[i] = tasks.get(dependencies[i]);
+			if (prerequisites[i] == null) {
+				throw new IllegalArgumentException("Task " + name + " depends on " + dependencies[i] + " which has not been submitted.");
+			}
+		}
+		tasks.put(name, CompletableFuture.allOf(prerequisites).thenRunAsync(() -> {
+			try {
+				task.run();
+			} catch (ServiceException | IOException e) {
+				throw new CompletionException(e);
+			}
+		}, executor));
+	}
+
+	/**
+	 * Waits for all submitted tasks, then throws the failure of the first task to fail in submission order, if any.
+	 */
+	public void awaitCompletion() throws ServiceException, IOException {
+		CompletableFuture.allOf(tasks.values().toArray(new CompletableFuture<?>[0])).handle((result, failure) -> null).join();
+		for (CompletableFuture<Void> task : tasks.values()) {
+			try {
+				task.join();
+			} catch (CompletionException e) {
+				Throwable cause = e.getCause() != null ? e.getCause() : e;
+				if (cause instanceof ServiceException serviceException) {
+					throw serviceException;
+				} else if (cause instanceof IOException ioException) {
+					throw ioException;
+				} else if (cause instanceof RuntimeException runtimeException) {
+					throw runtimeException;
+				} else if (cause instanceof Error error) {
+					throw error;
+				}
+				throw e;
+			}
+		}
+	}
+
+	/**
+	 * Runs the work on each unit as a fork join task and returns the results in the order of the units.
+	 * Called from a task running on a {@link java.util.concurrent.ForkJoinPool} the units are forked to that pool, where idle threads steal them,
+	 * otherwise to the common pool.
+	 */
+	public static <T, R> List<R> invokeAll(List<T> units, UnitOfWork<T, R> work) throws ServiceException {
+		List<ForkJoinTask<R>> tasks = new ArrayList<>(units.size());
+		for (T unit : units) {
+			tasks.add(ForkJoinTask.adapt(() -> work.validate(unit)));
+		}
+		try {
+			ForkJoinTask.invokeAll(tasks);
+		} catch (RuntimeException e) {
+			// Checked exceptions are wrapped by the adapted tasks
+			for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+				if (cause instanceof ServiceException serviceException) {
+					throw serviceException;
+				}
+			}
+			throw e;
+		}
+		List<R> results = new ArrayList<>(tasks.size());
+		for (ForkJoinTask<R> task : tasks) {
+			results.add(task.join());
+		}
+		return results;
+	}
+}
@@ -1,13 +1,15 @@
 package org.snomed.quality.validator.mrcm;
 
 import com.google.common.base.Strings;
-import it.unimi.dsi.fastutil.longs.Long2ObjectArrayMap;
 import org.apache.commons.lang3.StringUtils;
+import it.unimi.dsi.fastutil.longs.Long2ObjectMap;
+import it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap;
+import it.unimi.dsi.fastutil.longs.LongOpenHashSet;
 import org.ihtsdo.otf.snomedboot.ReleaseImportException;
 import org.ihtsdo.otf.snomedboot.ReleaseImporter;
 import org.ihtsdo.otf.snomedboot.domain.Concept;
 import org.ihtsdo.otf.snomedboot.domain.ConceptConstants;
-import org.ihtsdo.otf.snomedboot.domain.Description;
+import org.ihtsdo.otf.snomedboot.factory.ComponentFactory;
 import org.ihtsdo.otf.snomedboot.factory.FactoryUtils;
 import org.ihtsdo.otf.snomedboot.factory.ImpotentComponentFactory;
 import org.ihtsdo.otf.snomedboot.factory.LoadingProfile;
@@ -15,11 +17,11 @@ import org.ihtsdo.otf.snomedboot.factory.implementation.HighLevelComponentFactor
 import org.ihtsdo.otf.snomedboot.factory.implementation.standard.ComponentStore;
 import org.ihtsdo.otf.snomedboot.factory.implementation.standard.ComponentStoreComponentFactoryImpl;
 import org.ihtsdo.otf.snomedboot.factory.implementation.standard.ConceptImpl;
-import org.ihtsdo.otf.snomedboot.factory.implementation.standard.DescriptionImpl;
 import org.ihtsdo.otf.sqs.service.ReleaseImportManager;
 import org.ihtsdo.otf.sqs.service.SnomedQueryService;
 import org.ihtsdo.otf.sqs.service.dto.ConceptResult;
 import org.ihtsdo.otf.sqs.service.exception.ServiceException;
+import org.ihtsdo.otf.sqs.service.store.DiskReleaseStore;
 import org.ihtsdo.otf.sqs.service.store.RamReleaseStore;
 import org.ihtsdo.otf.sqs.service.store.ReleaseStore;
 import org.semanticweb.owlapi.io.OWLParserException;
@@ -32,6 +34,7 @@ import org.snomed.otf.owltoolkit.domain.Relationship;
 import org.snomed.quality.validator.mrcm.Assertion.FailureType;
 import org.snomed.quality.validator.mrcm.model.Attribute;
 import org.snomed.quality.validator.mrcm.model.Attribute.Type;
+import org.snomed.quality.validator.mrcm.model.AttributeDescriptor;
 import org.snomed.quality.validator.mrcm.model.Domain;
 import org.snomed.quality.validator.mrcm.model.ReferenceSetMember;
 import org.springframework.util.Assert;
@@ -40,7 +43,10 @@ import org.springframework.util.CollectionUtils;
 import java.io.File;
 import java.io.IOException;
 import java.util.*;
+import java.util.concurrent.*;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 import java.util.stream.Collectors;
@@ -52,6 +58,8 @@ public class ValidationService {
 
 	private static final Logger LOGGER = LoggerFactory.getLogger(ValidationService.class);
 
+	private static final String CARDINALITY_SCAN_TASK = "CARDINALITY_SCAN";
+
 	private static final Pattern CONCEPT_TERM_PATTERN = Pattern.compile("\\d+\\s\\|(.*?)\\|");
 
 	private static final LoadingProfile MRCM_AND_SIMPLE_REFSET_LOADING_PROFILE = new LoadingProfile()
@@ -62,10 +70,62 @@ public class ValidationService {
 			.withInactiveRefsetMembers()
 			.withJustRefsets();
 
+	private static final LoadingProfile STATED_VIEW_LOADING_PROFILE = LoadingProfile.light
+			.withStatedRelationships()
+			.withStatedAttributeMapOnConcept()
+			.withRefsets(LATERALIZABLE_BODY_STRUCTURE_REFSET, OWL_AXIOM_REFSET)
+			.withoutInferredAttributeMapOnConcept()
+			.withInactiveConcepts();
+
+	private static final LoadingProfile INFERRED_VIEW_LOADING_PROFILE = LoadingProfile.light
+			.withRefsets(LATERALIZABLE_BODY_STRUCTURE_REFSET, OWL_AXIOM_REFSET)
+			.withInactiveConcepts();
+
+	private static final LoadingProfile COMBINED_VIEWS_LOADING_PROFILE = LoadingProfile.light
+			.withStatedRelationships()
+			.withStatedAttributeMapOnConcept()
+			.withRefsets(LATERALIZABLE_BODY_STRUCTURE_REFSET, OWL_AXIOM_REFSET)
+			.withInactiveConcepts();
+
+	private QueryIndexCache queryIndexCache;
+	private SEPRefsetValidationService sepRefsetValidationService = new SEPRefsetValidationService();
+	private int validationThreads = Runtime.getRuntime().availableProcessors();
+
+	/**
+	 * Enables reuse of the query indexes built for a release across runs. Without a cache the indexes are built in memory on every run.
+	 */
+	public void setQueryIndexCache(QueryIndexCache queryIndexCache) {
+		this.queryIndexCache = queryIndexCache;
+	}
+
+	/**
+	 * Replaces the roots of the body structures excluded from the SEP naming rules, see {@link SEPRefsetValidationService#DEFAULT_EXCLUSION_ROOTS}.
+	 */
+	public void setSEPExclusionRoots(List<String> exclusionRoots) {
+		this.sepRefsetValidationService = new SEPRefsetValidationService(exclusionRoots);
+	}
+
+	/**
+	 * Sets the number of threads the validation types of a run, and the conversion of OWL axioms while the release is loaded,
+	 * are spread over, one per available processor by default.
+	 */
+	public void setValidationThreads(int validationThreads) {
+		Assert.isTrue(validationThreads > 0, "At least one validation thread is required.");
+		this.validationThreads = validationThreads;
+	}
+
 	public final void loadMRCM(final File sourceDirectory, final ValidationRun run) throws ReleaseImportException {
+		loadMRCM(sourceDirectory, Collections.singletonList(run));
+	}
+
+	/**
+	 * Loads the MRCM once and binds it to each of the given runs, e.g. the stated and inferred runs of the same release.
+	 */
+	public final void loadMRCM(final File sourceDirectory, final List<ValidationRun> runs) throws ReleaseImportException {
 		final MRCMFactory mrcmFactory = new MRCMFactory();
-		new ReleaseImporter().loadSnapshotReleaseFiles(sourceDirectory.getPath(), MRCM_AND_SIMPLE_REFSET_LOADING_PROFILE, mrcmFactory, false);
-		setMRCM(run, mrcmFactory);
+		new MRCMValidatorReleaseImportManager().loadReleaseFiles(Collections.singleton(sourceDirectory.getPath()), MRCM_AND_SIMPLE_REFSET_LOADING_PROFILE, mrcmFactory, true);
+		mrcmFactory.buildModel();
+		runs.forEach(run -> setMRCM(run, mrcmFactory));
 	}
 
 	public final void loadMRCM(final Set<String> extractedRF2FilesDirectories, final ValidationRun run) throws ReleaseImportException {
@@ -75,78 +135,245 @@ public class ValidationService {
 		}
 
 		final MRCMFactory mrcmFactory = new MRCMFactory();
-		boolean loadDelta = RF2ReleaseFilesUtil.anyDeltaFilesPresent(extractedRF2FilesDirectories);
-		if (loadDelta) {
-			new ReleaseImporter().loadEffectiveSnapshotAndDeltaReleaseFiles(extractedRF2FilesDirectories, MRCM_AND_SIMPLE_REFSET_LOADING_PROFILE, mrcmFactory, false);
-		} else {
-			new ReleaseImporter().loadEffectiveSnapshotReleaseFiles(extractedRF2FilesDirectories, MRCM_AND_SIMPLE_REFSET_LOADING_PROFILE, mrcmFactory, false);
-		}
+		new MRCMValidatorReleaseImportManager().loadReleaseFiles(extractedRF2FilesDirectories, MRCM_AND_SIMPLE_REFSET_LOADING_PROFILE, mrcmFactory, false);
+		mrcmFactory.buildModel();
 		setMRCM(run, mrcmFactory);
 	}
 
 	public void validateRelease(Set<String> extractedRF2FilesDirectories, ValidationRun run) throws ReleaseImportException, IOException, ServiceException {
-		executeValidation(extractedRF2FilesDirectories, run);
+		executeValidation(extractedRF2FilesDirectories, Collections.singletonList(run));
 	}
 
 	public void validateRelease(File releaseDirectory, ValidationRun run, Set<String> modules) throws ReleaseImportException, IOException, ServiceException {
 		run.setModuleIds(modules);
-		executeValidation(Collections.singleton(releaseDirectory.getPath()), run);
+		executeValidation(Collections.singleton(releaseDirectory.getPath()), Collections.singletonList(run));
 	}
 
 	public void validateRelease(File releaseDirectory, ValidationRun run) throws ReleaseImportException, IOException, ServiceException {
-		executeValidation(Collections.singleton(releaseDirectory.getPath()), run);
+		executeValidation(Collections.singleton(releaseDirectory.getPath()), Collections.singletonList(run));
 	}
 
-	private void executeValidation(Set<String> extractedRF2FilesDirectories, ValidationRun run) throws ReleaseImportException, IOException, ServiceException {
-		OWLExpressionAndDescriptionFactory owlExpressionAndDescriptionFactory = new OWLExpressionAndDescriptionFactory(new ComponentStore(), run.getUngroupedAttributes(),
-				run.getConceptsUsedInMRCMTemplates());
-		SnomedQueryService queryService = getSnomedQueryService(extractedRF2FilesDirectories, run.getContentType(), owlExpressionAndDescriptionFactory, run.isFullSnapshotRelease());
+	/**
+	 * Validates several views of the same release, loading the RF2 files only once.
+	 * The runs must share the same MRCM (see {@link #loadMRCM(File, List)}) and each must be for a different content type.
+	 */
+	public void validateRelease(File releaseDirectory, List<ValidationRun> runs) throws ReleaseImportException, IOException, ServiceException {
+		executeValidation(Collections.singleton(releaseDirectory.getPath()), runs);
+	}
 
-		final Map<Long, List<DescriptionImpl>> descriptions = owlExpressionAndDescriptionFactory.getDescriptions();
-		LOGGER.info("Total in-use concepts in attribute range {}", descriptions.keySet().size());
+	private void executeValidation(Set<String> extractedRF2FilesDirectories, List<ValidationRun> runs) throws ReleaseImportException, IOException, ServiceException {
+		Assert.notEmpty(runs, "At least one validation run is required.");
+		Map<ContentType, ValidationRun> runsByContentType = new EnumMap<>(ContentType.class);
+		runs.forEach(run -> Assert.isNull(runsByContentType.put(run.getContentType(), run), "Only one validation run per content type can share a release load."));
+		ValidationRun firstRun = runs.get(0);
+
+		// Axiom conversion and description filtering only depend on the MRCM, which the runs share
+		OWLExpressionAndDescriptionFactory owlExpressionAndDescriptionFactory = new OWLExpressionAndDescriptionFactory(new ComponentStore(), firstRun.getUngroupedAttributes(),
+				firstRun.getConceptsUsedInMRCMTemplates(), validationThreads);
+		// Concrete data type checks are collected in the same pass over the RF2 files as the index load
+		Map<ContentType, ConcreteAttributeDataTypeValidationService> dataTypeValidationServices = new EnumMap<>(ContentType.class);
+		List<ComponentFactory> additionalComponentFactories = new ArrayList<>();
+		ConceptDictionary.Builder conceptDictionaryBuilder = new ConceptDictionary.Builder();
+		additionalComponentFactories.add(conceptDictionaryBuilder);
+		SemanticTagIndex.Builder semanticTagIndexBuilder = new SemanticTagIndex.Builder();
+		additionalComponentFactories.add(semanticTagIndexBuilder);
+		for (ValidationRun run : runs) {
+			if (run.getValidationTypes().contains(ValidationType.CONCRETE_ATTRIBUTE_DATA_TYPE)) {
+				ConcreteAttributeDataTypeValidationService dataTypeValidationService = new ConcreteAttributeDataTypeValidationService(run);
+				dataTypeValidationServices.put(run.getContentType(), dataTypeValidationService);
+				additionalComponentFactories.add(dataTypeValidationService.getComponentFactory());
+			}
+		}
+		Map<ContentType, RelationshipTable.Builder> relationshipTableBuilders = new EnumMap<>(ContentType.class);
+		runsByContentType.keySet().forEach(contentType -> relationshipTableBuilders.put(contentType, new RelationshipTable.Builder(contentType)));
+		Map<ContentType, ConceptHierarchy.ReleaseBuilder> hierarchyBuilders = new EnumMap<>(ContentType.class);
+		runsByContentType.keySet().forEach(contentType -> hierarchyBuilders.put(contentType, new ConceptHierarchy.ReleaseBuilder(contentType)));
+		Map<ContentType, SnomedQueryService> queryServices = getSnomedQueryServices(extractedRF2FilesDirectories, runsByContentType.keySet(), owlExpressionAndDescriptionFactory,
+				firstRun.isFullSnapshotRelease(), additionalComponentFactories, relationshipTableBuilders, hierarchyBuilders);
+
+		final DescriptionIndex descriptions = owlExpressionAndDescriptionFactory.getDescriptions();
+		LOGGER.info("Total in-use concepts in attribute range {}", descriptions.getConceptCount());
+		final ConceptDictionary conceptDictionary = conceptDictionaryBuilder.build();
+		final SemanticTagIndex semanticTagIndex = semanticTagIndexBuilder.build(conceptDictionary);
+		LOGGER.info("Indexed concepts by {} semantic tags", semanticTagIndex.getTagCount());
+
+		// Work stealing, so the tasks of a validation type are picked up by the threads of the types already done
+		ForkJoinPool executor = new ForkJoinPool(validationThreads);
+		try {
+			for (ValidationRun run : runs) {
+				run.setSemanticTagIndex(semanticTagIndex);
+				RelationshipTable relationships = relationshipTableBuilders.get(run.getContentType()).build(conceptDictionary);
+				executeValidation(run, queryServices.get(run.getContentType()), conceptDictionary, relationships, hierarchyBuilders.get(run.getContentType()), descriptions,
+						dataTypeValidationServices.get(run.getContentType()), executor);
+			}
+		} finally {
+			executor.shutdown();
+		}
+	}
 
+	private void executeValidation(ValidationRun run, SnomedQueryService queryService, ConceptDictionary conceptDictionary, RelationshipTable relationships,
+			ConceptHierarchy.ReleaseBuilder hierarchyBuilder, DescriptionIndex descriptions, ConcreteAttributeDataTypeValidationService dataTypeValidationService, Executor executor) throws IOException, ServiceException {
 		//checking data is loaded properly
-		LOGGER.info("Total concepts loaded {}", queryService.getConceptCount());
+		LOGGER.info("Validating {} view. Total concepts loaded {}", run.getContentType().getType(), queryService.getConceptCount());
 		List<Long> preCoordinatedTypes = queryService.eclQueryReturnConceptIdentifiers("<<" + ALL_NEW_PRE_COORDINATED_CONTENT_CONCEPT, 0, 100).conceptIds();
+		// Sub-queries are shared between the validation types of a run
+		run.setConceptDictionary(conceptDictionary);
+		run.setEclQueryCache(new EclQueryCache(queryService, conceptDictionary));
+		run.setConceptHydrator(new ConceptHydrator(queryService));
+		run.setConceptHierarchyLoader(() -> hierarchyBuilder.build(conceptDictionary));
+		run.setAttributeDescriptors(resolveAttributeDescriptors(run));
 		Assert.notEmpty(preCoordinatedTypes, "Concept " + ALL_NEW_PRE_COORDINATED_CONTENT_CONCEPT + " and descendants must be accessible.");
-		for (ValidationType type : run.getValidationTypes()) {
+		// The validation types only read the shared indexes, so they run concurrently apart from the cardinality checks sharing one scan
+		ValidationScheduler scheduler = new ValidationScheduler(executor);
+		AtomicReference<CardinalityViolations> cardinalityViolations = new AtomicReference<>();
+		if (run.getValidationTypes().contains(ValidationType.ATTRIBUTE_CARDINALITY) || run.getValidationTypes().contains(ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY)) {
+			scheduler.submit(CARDINALITY_SCAN_TASK, () -> cardinalityViolations.set(findCardinalityViolations(run, relationships, preCoordinatedTypes)));
+		}
+		for (ValidationType type : new LinkedHashSet<>(run.getValidationTypes())) {
             switch (type) {
-                case ATTRIBUTE_DOMAIN -> executeAttributeDomainValidation(run, queryService, preCoordinatedTypes);
-                case ATTRIBUTE_RANGE ->
-                        executeAttributeRangeValidation(run, queryService, descriptions, preCoordinatedTypes);
-                case ATTRIBUTE_CARDINALITY ->
-                        executeAttributeCardinalityValidation(run, queryService, preCoordinatedTypes);
-                case ATTRIBUTE_IN_GROUP_CARDINALITY ->
-                        executeAttributeGroupCardinalityValidation(run, queryService, preCoordinatedTypes);
-                case CONCRETE_ATTRIBUTE_DATA_TYPE ->
-                        executeConcreteDataTypeValidation(extractedRF2FilesDirectories, run, queryService);
+                case ATTRIBUTE_DOMAIN -> scheduler.submit(type.name(), () -> executeAttributeDomainValidation(run, preCoordinatedTypes));
+                case ATTRIBUTE_RANGE -> scheduler.submit(type.name(),
+                        () -> executeAttributeRangeValidation(run, descriptions, relationships, preCoordinatedTypes));
+                case ATTRIBUTE_CARDINALITY -> scheduler.submit(type.name(),
+                        () -> executeAttributeCardinalityValidation(run, preCoordinatedTypes, cardinalityViolations.get()), CARDINALITY_SCAN_TASK);
+                case ATTRIBUTE_IN_GROUP_CARDINALITY -> scheduler.submit(type.name(),
+                        () -> executeAttributeGroupCardinalityValidation(run, preCoordinatedTypes, cardinalityViolations.get()), CARDINALITY_SCAN_TASK);
+                case CONCRETE_ATTRIBUTE_DATA_TYPE -> scheduler.submit(type.name(),
+                        () -> executeConcreteDataTypeValidation(dataTypeValidationService, run, queryService));
                 case LATERALIZABLE_BODY_STRUCTURE_REFSET_TYPE -> {
                     if (ContentType.INFERRED.equals(run.getContentType()) && CollectionUtils.isEmpty(run.getModuleIds())) {
-                        executeLateralizableRefsetValidation(run, queryService);
+                        scheduler.submit(type.name(), () -> executeLateralizableRefsetValidation(run, queryService));
                     }
                 }
 				case SEP_REFSET_TYPE -> {
 					if (ContentType.INFERRED.equals(run.getContentType()) && CollectionUtils.isEmpty(run.getModuleIds())) {
-						executeSEPRefsetValidation(run, queryService);
+						scheduler.submit(type.name(), () -> executeSEPRefsetValidation(run, queryService));
 					}
 				}
                 default -> LOGGER.error("Validation Type: '{}' is not implemented yet!", type);
             }
 		}
+		scheduler.awaitCompletion();
+		// Report in the order of the validation types whichever task finished first
+		run.sortAssertionsByValidationType();
+		run.getEclQueryCache().logStatistics();
+		LOGGER.info("{} concepts hydrated for the {} view", run.getConceptHydrator().getHydratedCount(), run.getContentType().getType());
 	}
 
 	protected SnomedQueryService getSnomedQueryService(Set<String> extractedRF2FilesDirectories, ContentType contentType, OWLExpressionAndDescriptionFactory owlExpressionAndDescriptionFactory, boolean fullSnapshotRelease) throws ReleaseImportException, IOException {
-		LoadingProfile profile = contentType == ContentType.STATED ?
-				LoadingProfile.light
-						.withStatedRelationships()
-						.withStatedAttributeMapOnConcept()
-						.withRefsets(LATERALIZABLE_BODY_STRUCTURE_REFSET, OWL_AXIOM_REFSET)
-						.withoutInferredAttributeMapOnConcept()
-						.withInactiveConcepts()
-				: LoadingProfile.light.withRefsets(LATERALIZABLE_BODY_STRUCTURE_REFSET, OWL_AXIOM_REFSET).withInactiveConcepts();
+		return getSnomedQueryServices(extractedRF2FilesDirectories, EnumSet.of(contentType), owlExpressionAndDescriptionFactory, fullSnapshotRelease, Collections.emptyList(),
+				new EnumMap<>(ContentType.class), new EnumMap<>(ContentType.class)).get(contentType);
+	}
+
+	/**
+	 * Loads the release once and builds a query index for each of the requested views from the same components.
+	 * Every parsed row is also handed to the additional component factories so that they don't need a pass over the RF2 files of their own.
+	 * The relationship table and hierarchy builders given for a view are filled with the relationships of that view.
+	 * When a query index cache is set, views already in the cache are opened from disk and the indexes of the others are written to it.
+	 */
+	protected Map<ContentType, SnomedQueryService> getSnomedQueryServices(Set<String> extractedRF2FilesDirectories, Set<ContentType> contentTypes, OWLExpressionAndDescriptionFactory owlExpressionAndDescriptionFactory,
+			boolean fullSnapshotRelease, List<ComponentFactory> additionalComponentFactories, Map<ContentType, RelationshipTable.Builder> relationshipTableBuilders,
+			Map<ContentType, ConceptHierarchy.ReleaseBuilder> hierarchyBuilders) throws ReleaseImportException, IOException {
+		String cacheKey = null;
+		Map<ContentType, LoadingProfile> indexProfiles = new EnumMap<>(ContentType.class);
+		Map<ContentType, SnomedQueryService> queryServices = new EnumMap<>(ContentType.class);
+		if (queryIndexCache != null) {
+			cacheKey = queryIndexCache.computeKey(extractedRF2FilesDirectories, owlExpressionAndDescriptionFactory.getUngroupedAttributes(), fullSnapshotRelease);
+			queryIndexCache.touch(cacheKey);
+		}
+		for (ContentType contentType : contentTypes) {
+			if (cacheKey != null && queryIndexCache.contains(cacheKey, contentType)) {
+				LOGGER.info("Using cached {} index {}", contentType.getType(), cacheKey);
+				queryServices.put(contentType, new SnomedQueryService(new DiskReleaseStore(queryIndexCache.getIndexDirectory(cacheKey, contentType))));
+				if (relationshipTableBuilders.containsKey(contentType)) {
+					relationshipTableBuilders.get(contentType).read(queryIndexCache.getRelationshipTableFile(cacheKey, contentType));
+				}
+				if (hierarchyBuilders.containsKey(contentType)) {
+					hierarchyBuilders.get(contentType).read(queryIndexCache.getHierarchyFile(cacheKey, contentType));
+				}
+			} else {
+				indexProfiles.put(contentType, getIndexLoadingProfile(contentType));
+			}
+		}
+
+		MRCMValidatorReleaseImportManager importManager = new MRCMValidatorReleaseImportManager();
+		if (indexProfiles.isEmpty()) {
+			// The descriptions of the concepts in use and the additional factories depend on the MRCM, so those rows are still read.
+			// Axiom conversion and indexing are skipped.
+			List<ComponentFactory> componentFactories = new ArrayList<>();
+			componentFactories.add(new DescriptionComponentFactory(owlExpressionAndDescriptionFactory));
+			componentFactories.addAll(additionalComponentFactories);
+			importManager.loadReleaseFiles(extractedRF2FilesDirectories, INFERRED_VIEW_LOADING_PROFILE, new CompositeComponentFactory(componentFactories), fullSnapshotRelease);
+			return queryServices;
+		}
+
+		// When both views are required the components are loaded with the attribute maps of both views on each concept
+		LoadingProfile loadingProfile = indexProfiles.size() == 1 ? indexProfiles.values().iterator().next() : COMBINED_VIEWS_LOADING_PROFILE;
+		Map<ContentType, File> workingDirectories = new EnumMap<>(ContentType.class);
+		Map<ContentType, ReleaseStore> releaseStores = new EnumMap<>(ContentType.class);
+		Map<ContentType, RelationshipTable.Builder> tableBuilders = new EnumMap<>(ContentType.class);
+		tableBuilders.putAll(relationshipTableBuilders);
+		Map<ContentType, ConceptHierarchy.ReleaseBuilder> releaseHierarchyBuilders = new EnumMap<>(ContentType.class);
+		releaseHierarchyBuilders.putAll(hierarchyBuilders);
+		if (cacheKey != null) {
+			// A published index always has its relationship table and hierarchy, so they are built even for views whose caller doesn't use them
+			indexProfiles.keySet().forEach(contentType -> {
+				tableBuilders.computeIfAbsent(contentType, RelationshipTable.Builder::new);
+				releaseHierarchyBuilders.computeIfAbsent(contentType, ConceptHierarchy.ReleaseBuilder::new);
+			});
+		}
+		try {
+			for (ContentType contentType : indexProfiles.keySet()) {
+				if (cacheKey != null) {
+					File workingDirectory = queryIndexCache.createWorkingDirectory(cacheKey, contentType);
+					workingDirectories.put(contentType, workingDirectory);
+					releaseStores.put(contentType, new DiskReleaseStore(workingDirectory));
+				} else {
+					releaseStores.put(contentType, new RamReleaseStore());
+				}
+			}
+			List<ComponentFactory> componentFactories = new ArrayList<>(additionalComponentFactories);
+			indexProfiles.keySet().stream().filter(tableBuilders::containsKey).forEach(contentType -> componentFactories.add(tableBuilders.get(contentType)));
+			indexProfiles.keySet().stream().filter(releaseHierarchyBuilders::containsKey).forEach(contentType -> componentFactories.add(releaseHierarchyBuilders.get(contentType)));
+			importManager.loadReleaseFilesToIndexes(extractedRF2FilesDirectories, loadingProfile, indexProfiles, releaseStores, owlExpressionAndDescriptionFactory,
+					componentFactories, fullSnapshotRelease);
+			if (indexProfiles.containsKey(ContentType.STATED) && tableBuilders.containsKey(ContentType.STATED)) {
+				tableBuilders.get(ContentType.STATED).addAxiomRelationships(owlExpressionAndDescriptionFactory.getAxiomRelationships());
+			}
+			if (indexProfiles.containsKey(ContentType.STATED) && releaseHierarchyBuilders.containsKey(ContentType.STATED)) {
+				releaseHierarchyBuilders.get(ContentType.STATED).addAxiomRelationships(owlExpressionAndDescriptionFactory.getAxiomRelationships());
+			}
+			for (Map.Entry<ContentType, ReleaseStore> entry : releaseStores.entrySet()) {
+				ContentType contentType = entry.getKey();
+				if (cacheKey != null) {
+					// Written before the index is published, a published index always has its relationship table and hierarchy
+					tableBuilders.get(contentType).write(queryIndexCache.getRelationshipTableFile(cacheKey, contentType));
+					releaseHierarchyBuilders.get(contentType).write(queryIndexCache.getHierarchyFile(cacheKey, contentType));
+					File indexDirectory = queryIndexCache.publish(cacheKey, contentType, workingDirectories.get(contentType));
+					LOGGER.info("Cached {} index {}", contentType.getType(), cacheKey);
+					queryServices.put(contentType, new SnomedQueryService(new DiskReleaseStore(indexDirectory)));
+				} else {
+					queryServices.put(contentType, new SnomedQueryService(entry.getValue()));
+				}
+			}
+		} finally {
+			// Published indexes have been moved away, what is left belongs to an index that failed to build
+			for (File workingDirectory : workingDirectories.values()) {
+				try {
+					queryIndexCache.discardWorkingDirectory(workingDirectory);
+				} catch (IOException e) {
+					LOGGER.warn("Failed to delete index working directory {}", workingDirectory, e);
+				}
+			}
+		}
+		if (cacheKey != null) {
+			queryIndexCache.evict(cacheKey);
+		}
+		return queryServices;
+	}
 
-		ReleaseStore releaseStore = new MRCMValidatorReleaseImportManager().loadReleaseFilesToMemoryBasedIndex(extractedRF2FilesDirectories, profile, owlExpressionAndDescriptionFactory, fullSnapshotRelease);
-		return new SnomedQueryService(releaseStore);
+	private static LoadingProfile getIndexLoadingProfile(ContentType contentType) {
+		return contentType == ContentType.STATED ? STATED_VIEW_LOADING_PROFILE : INFERRED_VIEW_LOADING_PROFILE;
 	}
 
 	private void setMRCM(ValidationRun run, MRCMFactory mrcmFactory) {
@@ -169,94 +396,187 @@ public class ValidationService {
 	}
 
 	private void executeSEPRefsetValidation(ValidationRun run, SnomedQueryService queryService) throws ServiceException, IOException {
-		SEPRefsetValidationService sepRefsetValidationService = new SEPRefsetValidationService();
 		sepRefsetValidationService.validate(queryService, run);
 	}
 
-	private void executeConcreteDataTypeValidation(Set<String> extractedRF2FilesDirectories, ValidationRun run, SnomedQueryService queryService) throws ReleaseImportException, ServiceException {
-		// Concrete attribute data type validation
-		ConcreteAttributeDataTypeValidationService dataTypeValidationService = new ConcreteAttributeDataTypeValidationService();
-		dataTypeValidationService.validate(extractedRF2FilesDirectories, run);
-		for (Assertion assertion : run.getFailedAssertions()) {
-			List<Long> conceptIds = assertion.getCurrentViolatedConceptIds();
-			for (Long conceptId : conceptIds) {
-				ConceptResult result = queryService.retrieveConcept(String.valueOf(conceptId));
+	private void executeConcreteDataTypeValidation(ConcreteAttributeDataTypeValidationService dataTypeValidationService, ValidationRun run, SnomedQueryService queryService) throws ServiceException {
+		// Concrete attribute data type validation, violations were collected while the release was loaded
+		dataTypeValidationService.validate(run);
+		// Only the assertions of this validation type, the others may still be running
+		List<Assertion> failedAssertions = run.getFailedAssertions().stream()
+				.filter(assertion -> ValidationType.CONCRETE_ATTRIBUTE_DATA_TYPE == assertion.getValidationType()).toList();
+		LongOpenHashSet violatedConceptIds = new LongOpenHashSet();
+		for (Assertion assertion : failedAssertions) {
+			assertion.getCurrentViolatedConceptIds().forEach(violatedConceptIds::add);
+		}
+		Long2ObjectMap<ConceptResult> concepts = run.getConceptHydrator().hydrate(violatedConceptIds);
+		int notFound = 0;
+		for (Assertion assertion : failedAssertions) {
+			for (Long conceptId : assertion.getCurrentViolatedConceptIds()) {
+				ConceptResult result = concepts.get(conceptId.longValue());
+				if (result == null) {
+					// Reported by its id, the release has no concept row for it
+					assertion.getCurrentViolatedConcepts().add(new ConceptResult(conceptId.toString()));
+					notFound++;
+					continue;
+				}
 				if (!CollectionUtils.isEmpty(run.getModuleIds()) && !run.getModuleIds().contains(result.getModuleId())) {
 					continue;
 				}
 				assertion.getCurrentViolatedConcepts().add(result);
 			}
 		}
+		if (notFound > 0) {
+			LOGGER.warn("{} concepts failing the concrete attribute data type validation are not in the {} view", notFound, run.getContentType().getType());
+		}
+	}
+
+	private void executeAttributeDomainValidation(ValidationRun run, List <Long> precoordinatedTypes) throws ServiceException {
+		executeAttributeDomainValidation(run, precoordinatedTypes, MANDATORY);
+		executeAttributeDomainValidation(run, precoordinatedTypes, OPTIONAL);
 	}
 
-	private void executeAttributeDomainValidation(ValidationRun run, SnomedQueryService queryService, List <Long> precoordinatedTypes) throws ServiceException {
-		executeAttributeDomainValidation(run,queryService,precoordinatedTypes, MANDATORY);
-		executeAttributeDomainValidation(run,queryService,precoordinatedTypes, OPTIONAL);
+	private void executeAttributeGroupCardinalityValidation(ValidationRun run, List<Long> precoordinatedTypes,
+			CardinalityViolations cardinalityViolations) throws ServiceException {
+		List<AssertionCollector> results = ValidationScheduler.invokeAll(getDomainAttributes(run), domainAttribute -> {
+			AssertionCollector assertions = new AssertionCollector();
+			Domain domain = domainAttribute.domain();
+			Attribute attribute = domainAttribute.attribute();
+			if (!precoordinatedTypes.contains(Long.parseLong(attribute.getContentTypeId()))) {
+				//skip
+				assertions.addSkippedAssertion(constructAssertion(run, attribute, ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY, CONTENT_TYPE_IS_OUT_OF_SCOPE + attribute.getContentTypeId()));
+			} else if (isInGroupCardinalityChecked(attribute)) {
+				ConceptSet invalidConcepts = cardinalityViolations.inGroupCardinality().get(attribute);
+				LOGGER.info("{} concepts within domain '{}' fail the group cardinality [{}] {{ [{}] {} }}", invalidConcepts.size(), domain.getDomainId(),
+						attribute.getAttributeCardinality(), attribute.getAttributeInGroupCardinality(), attribute.getAttributeId());
+				assertions.addViolations(attribute, invalidConcepts.toConceptIds(), ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY, null);
+			} else {
+				String skipMsg = "ValidationType:" + ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY.getName() + " Skipped reason: ";
+				if (NO_CARDINALITY_CONSTRAINT.equals(attribute.getAttributeInGroupCardinality())) {
+					skipMsg += " Attribute group cardinality constraint is " + attribute.getAttributeInGroupCardinality();
+				} else if (!attribute.isGrouped()) {
+					skipMsg += " Attribute constraint is not grouped.";
+				}
+				assertions.addSkippedAssertion(constructAssertion(run, attribute,ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY, skipMsg));
+			}
+			return assertions;
+		});
+		addToRun(run, results);
+	}
+
+	/**
+	 * Lists the attributes of every domain, the units of work of the validation types checking each attribute on its own.
+	 */
+	private static List<DomainAttribute> getDomainAttributes(ValidationRun run) {
+		List<DomainAttribute> domainAttributes = new ArrayList<>();
+		for (Domain domain : run.getMRCMDomains().values()) {
+			for (Attribute attribute : domain.getAttributes()) {
+				domainAttributes.add(new DomainAttribute(domain, attribute));
+			}
+		}
+		return domainAttributes;
 	}
 
-	private void executeAttributeGroupCardinalityValidation(ValidationRun run, SnomedQueryService queryService, List<Long> precoordinatedTypes) throws ServiceException {
+	/**
+	 * Runs the checks of both cardinality validation types in one pass over the relationships of the view.
+	 * Attribute cardinality applies to the domain constraint, in group cardinality to the domain concept and its descendants.
+	 */
+	private CardinalityViolations findCardinalityViolations(ValidationRun run, RelationshipTable relationships, List<Long> precoordinatedTypes) throws ServiceException {
+		CardinalityEngine engine = new CardinalityEngine(relationships);
+		Map<Attribute, Integer> attributeChecks = new IdentityHashMap<>();
+		Map<Attribute, Integer> inGroupChecks = new IdentityHashMap<>();
 		for (Domain domain : run.getMRCMDomains().values()) {
 			for (Attribute attribute : domain.getAttributes()) {
 				if (!precoordinatedTypes.contains(Long.parseLong(attribute.getContentTypeId()))) {
-					//skip
-					run.addSkippedAssertion(constructAssertion(queryService, attribute, ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY, CONTENT_TYPE_IS_OUT_OF_SCOPE + attribute.getContentTypeId()));
 					continue;
 				}
-				String domainPartEcl = "<<" + domain.getDomainId() + ":"; 
-				String attributePartEcl = attribute.getAttributeId() + "=*";
-				if (attribute.isGrouped() && !NO_CARDINALITY_CONSTRAINT.equals(attribute.getAttributeInGroupCardinality())) {
-					String eclWithoutCardinality = domainPartEcl + "[0..*]" + " { [0..*] " + attributePartEcl + " }";
-					//run ECL query to retrieve failures
-					LOGGER.info("Selecting content within domain '{}' with attribute '{}' without group cardinality ECL:'{}'", domain.getDomainId(), attribute.getAttributeId(), eclWithoutCardinality);
-					List<Long> conceptIdsWithoutCardinality = queryService.eclQueryReturnConceptIdentifiers(eclWithoutCardinality, 0, -1).conceptIds();
-					String eclWithCardinality = domainPartEcl + "[" + attribute.getAttributeCardinality() + "]" + "{ [" + attribute.getAttributeInGroupCardinality() + "] " + attributePartEcl + "}";
-					LOGGER.info("Selecting content within domain '{}' with attribute '{}' with cardinality ECL:'{}'", domain.getDomainId(), attribute.getAttributeId(), eclWithCardinality);
-					List<Long> conceptIdsWithCardinality = queryService.eclQueryReturnConceptIdentifiers(eclWithCardinality, 0, -1).conceptIds();
-					List<Long> invalidIds = new ArrayList<>();
-					if (conceptIdsWithoutCardinality.size() != conceptIdsWithCardinality.size()) {
-						invalidIds = conceptIdsWithoutCardinality;
-						invalidIds.removeAll(conceptIdsWithCardinality);
-					}
-					processValidationResults(run, queryService, attribute, invalidIds, ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY, null);
-				} else {
-					String skipMsg = "ValidationType:" + ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY.getName() + " Skipped reason: ";
-					if (NO_CARDINALITY_CONSTRAINT.equals(attribute.getAttributeInGroupCardinality())) {
-						skipMsg += " Attribute group cardinality constraint is " + attribute.getAttributeInGroupCardinality();
-					} else if (!attribute.isGrouped()) {
-						skipMsg += " Attribute constraint is not grouped.";
-					}
-					run.addSkippedAssertion(constructAssertion(queryService, attribute,ValidationType.ATTRIBUTE_IN_GROUP_CARDINALITY, skipMsg));
+				long attributeTypeId = Long.parseLong(attribute.getAttributeId());
+				if (!NO_CARDINALITY_CONSTRAINT.equals(attribute.getAttributeCardinality())) {
+					ConceptSet domainConcepts = run.getEclQueryCache().conceptSet(domain.getDomainConstraint());
+					attributeChecks.put(attribute, engine.addAttributeCardinalityCheck(domainConcepts, attributeTypeId, attribute.getAttributeCardinality()));
+				}
+				if (isInGroupCardinalityChecked(attribute)) {
+					ConceptSet domainConcepts = getDescendantsOrSelf(run, domain.getDomainId());
+					inGroupChecks.put(attribute, engine.addAttributeInGroupCardinalityCheck(domainConcepts, attributeTypeId,
+							attribute.getAttributeCardinality(), attribute.getAttributeInGroupCardinality()));
 				}
 			}
 		}
+		List<ConceptSet> results = engine.run();
+		Map<Attribute, ConceptSet> attributeViolations = new IdentityHashMap<>();
+		attributeChecks.forEach((attribute, check) -> attributeViolations.put(attribute, results.get(check)));
+		Map<Attribute, ConceptSet> inGroupViolations = new IdentityHashMap<>();
+		inGroupChecks.forEach((attribute, check) -> inGroupViolations.put(attribute, results.get(check)));
+		LOGGER.info("Checked {} cardinality constraints against {} relationships", results.size(), relationships.size());
+		return new CardinalityViolations(attributeViolations, inGroupViolations);
+	}
+
+	private static boolean isInGroupCardinalityChecked(Attribute attribute) {
+		return attribute.isGrouped() && !NO_CARDINALITY_CONSTRAINT.equals(attribute.getAttributeInGroupCardinality());
+	}
+
+	private static ConceptSet getDescendantsOrSelf(ValidationRun run, String conceptId) {
+		ConceptDictionary dictionary = run.getEclQueryCache().getDictionary();
+		if (dictionary.getOrdinal(Long.parseLong(conceptId)) == ConceptDictionary.NOT_FOUND) {
+			return ConceptSet.empty(dictionary);
+		}
+		return run.getConceptHierarchy().descendantsOrSelf(ConceptSet.of(dictionary, List.of(Long.parseLong(conceptId))));
+	}
 
+	/**
+	 * Retrieves the concepts violating the constraints of all units of a validation type in one call to the hydrator,
+	 * so there is at most one pass over the store however many units have violations, then adds the assertions to the run in the order of the units.
+	 */
+	private void addToRun(ValidationRun run, List<AssertionCollector> results) throws ServiceException {
+		LongOpenHashSet violatedConceptIds = new LongOpenHashSet();
+		results.forEach(assertions -> assertions.collectViolatedConceptIds(violatedConceptIds));
+		Long2ObjectMap<ConceptResult> concepts = run.getConceptHydrator().hydrate(violatedConceptIds);
+		for (AssertionCollector assertions : results) {
+			assertions.resolveViolations(violations -> processValidationResults(run, violations, concepts));
+			assertions.addTo(run);
+		}
 	}
 
-	private void processValidationResults(ValidationRun run, SnomedQueryService queryService, Attribute attribute,
-										  List <Long> invalidIds, ValidationType type, String domainConstraint) throws ServiceException {
+	private Assertion processValidationResults(ValidationRun run, AssertionCollector.Violations violations, Long2ObjectMap<ConceptResult> invalidConcepts) {
+		Attribute attribute = violations.attribute();
+		List<Long> invalidIds = violations.conceptIds();
+		ValidationType type = violations.type();
+		String domainConstraint = violations.domainConstraint();
 		String msg = "";
 		List <ConceptResult> newInvalidConcepts = new ArrayList<>();
+		// Violations are never dropped, a concept missing from the query index is reported by its id
+		List<ConceptResult> notFoundConcepts = new ArrayList<>();
 		if (run.getReleaseDate() != null) {
 			//Filter out failures for current release and previous published release.
 			List<ConceptResult> currentRelease = new ArrayList<>();
+			List<ConceptResult> previousReleases = new ArrayList<>();
 			for (Long conceptId : invalidIds) {
-				ConceptResult result = queryService.retrieveConcept(conceptId.toString());
+				ConceptResult result = invalidConcepts.get(conceptId.longValue());
+				if (result == null) {
+					notFoundConcepts.add(new ConceptResult(conceptId.toString()));
+					continue;
+				}
 				if (!CollectionUtils.isEmpty(run.getModuleIds()) && !run.getModuleIds().contains(result.getModuleId())) {
 					continue;
 				}
 				newInvalidConcepts.add(result);
 				if (run.getReleaseDate().equals(result.getEffectiveTime())) {
 					currentRelease.add(result);
-				} 
+				} else {
+					previousReleases.add(result);
+				}
 			}
+			// The release date of a concept not found is unknown, it is reported with the failures of the release
+			newInvalidConcepts.addAll(notFoundConcepts);
+			currentRelease.addAll(notFoundConcepts);
+			msg += getNotFoundMessage(run, attribute, type, notFoundConcepts);
 			if (newInvalidConcepts.size() > currentRelease.size()) {
 				msg += " Total failures=" + newInvalidConcepts.size() + ". Failures with release date:" + run.getReleaseDate() + "=" + currentRelease.size();
 			}
 			if (ALL_NEW_PRE_COORDINATED_CONTENT_CONCEPT.equals(attribute.getContentTypeId())) {
-				run.addCompletedAssertion(constructAssertion(queryService, attribute, type, msg, currentRelease, null, domainConstraint));
+				return constructAssertion(run, attribute, type, msg, currentRelease, null, domainConstraint);
 			} else {
-				newInvalidConcepts.removeAll(currentRelease);
-				run.addCompletedAssertion(constructAssertion(queryService, attribute, type, msg, currentRelease, newInvalidConcepts, domainConstraint));
+				return constructAssertion(run, attribute, type, msg, currentRelease, previousReleases, domainConstraint);
 			}
 		} else {
 			// for ALL_NEW_PRECOORDINATED_CONTENT_CONCEPT display message that no effect date is supplied
@@ -264,73 +584,161 @@ public class ValidationService {
 				msg += " Content type is for new concept only but there is no current release date specified.";
 			}
 			for (Long conceptId : invalidIds) {
-				ConceptResult result = queryService.retrieveConcept(conceptId.toString());
+				ConceptResult result = invalidConcepts.get(conceptId.longValue());
+				if (result == null) {
+					notFoundConcepts.add(new ConceptResult(conceptId.toString()));
+					continue;
+				}
 				if (!CollectionUtils.isEmpty(run.getModuleIds()) &&  !run.getModuleIds().contains(result.getModuleId())) {
 					continue;
 				}
 				newInvalidConcepts.add(result);
 			}
+			newInvalidConcepts.addAll(notFoundConcepts);
+			msg += getNotFoundMessage(run, attribute, type, notFoundConcepts);
 
-			run.addCompletedAssertion(constructAssertion(queryService, attribute, type, msg, newInvalidConcepts, null, domainConstraint));
+			return constructAssertion(run, attribute, type, msg, newInvalidConcepts, null, domainConstraint);
 		}
 	}
 
-	private void executeAttributeCardinalityValidation(ValidationRun run, SnomedQueryService queryService, List<Long> precoordinatedTypes) throws ServiceException {
-		for (Domain domain : run.getMRCMDomains().values()) {
-			for (Attribute attribute : domain.getAttributes()) {
-				if (!precoordinatedTypes.contains(Long.parseLong(attribute.getContentTypeId()))) {
-					//skip
-					run.addSkippedAssertion(constructAssertion(queryService, attribute, ValidationType.ATTRIBUTE_CARDINALITY, CONTENT_TYPE_IS_OUT_OF_SCOPE + attribute.getContentTypeId()));
-					continue;
-				}
-				if (NO_CARDINALITY_CONSTRAINT.equals(attribute.getAttributeCardinality())) {
-					run.addSkippedAssertion(constructAssertion(queryService,attribute, ValidationType.ATTRIBUTE_CARDINALITY,
-							"Attribute cardinality constraint is " + attribute.getAttributeCardinality()));
-				} else {
-					String domainConstraint = domain.getDomainConstraint() + " : ";
-					String attributeWithoutRange = attribute.getAttributeId() + " =* ";
-					String eclWithoutCardinality = domainConstraint +  attributeWithoutRange;
-					//run ECL query to retrieve failures
-					LOGGER.info("Selecting content within domain '{}' with attribute '{}' without cardinality ECL:'{}'", domain.getDomainId(), attribute.getAttributeId(), eclWithoutCardinality);
-					List<Long> conceptIdsWithoutCardinality = queryService.eclQueryReturnConceptIdentifiers(eclWithoutCardinality, 0, -1).conceptIds();
-					String eclWithCardinality = domainConstraint + " [" + attribute.getAttributeCardinality() + "] " + attributeWithoutRange;
-					LOGGER.info("Selecting content within domain '{}' with attribute '{}' with cardinality ECL:'{}'", domain.getDomainId(), attribute.getAttributeId(), eclWithCardinality);
-					List<Long> conceptIdsWithCardinality = queryService.eclQueryReturnConceptIdentifiers(eclWithCardinality, 0, -1).conceptIds();
-					List<Long> invalidIds = new ArrayList<>();
-					if (conceptIdsWithoutCardinality.size() != conceptIdsWithCardinality.size()) {
-						invalidIds = conceptIdsWithoutCardinality;
-						invalidIds.removeAll(conceptIdsWithCardinality);
-					}
-					processValidationResults(run, queryService, attribute, invalidIds, ValidationType.ATTRIBUTE_CARDINALITY, null);
-				} 
-			}
+	private static String getNotFoundMessage(ValidationRun run, Attribute attribute, ValidationType type, List<ConceptResult> notFoundConcepts) {
+		if (notFoundConcepts.isEmpty()) {
+			return "";
 		}
+		LOGGER.warn("{} concepts failing the {} of attribute {} are not in the {} view", notFoundConcepts.size(), type.getName().toLowerCase(),
+				attribute.getAttributeId(), run.getContentType().getType());
+		return " Failures not found in the release=" + notFoundConcepts.size() + ".";
 	}
 
-	private Assertion constructAssertion(SnomedQueryService queryService, Attribute attribute, ValidationType attributeCardinality, String skipMsg) {
-		return constructAssertion(queryService, attribute, attributeCardinality, skipMsg, null,null,null);
+	private void executeAttributeCardinalityValidation(ValidationRun run, List<Long> precoordinatedTypes,
+			CardinalityViolations cardinalityViolations) throws ServiceException {
+		List<AssertionCollector> results = ValidationScheduler.invokeAll(getDomainAttributes(run), domainAttribute -> {
+			AssertionCollector assertions = new AssertionCollector();
+			Domain domain = domainAttribute.domain();
+			Attribute attribute = domainAttribute.attribute();
+			if (!precoordinatedTypes.contains(Long.parseLong(attribute.getContentTypeId()))) {
+				//skip
+				assertions.addSkippedAssertion(constructAssertion(run, attribute, ValidationType.ATTRIBUTE_CARDINALITY, CONTENT_TYPE_IS_OUT_OF_SCOPE + attribute.getContentTypeId()));
+			} else if (NO_CARDINALITY_CONSTRAINT.equals(attribute.getAttributeCardinality())) {
+				assertions.addSkippedAssertion(constructAssertion(run, attribute, ValidationType.ATTRIBUTE_CARDINALITY,
+						"Attribute cardinality constraint is " + attribute.getAttributeCardinality()));
+			} else {
+				ConceptSet invalidConcepts = cardinalityViolations.attributeCardinality().get(attribute);
+				LOGGER.info("{} concepts within domain '{}' fail the cardinality [{}] {}", invalidConcepts.size(), domain.getDomainId(),
+						attribute.getAttributeCardinality(), attribute.getAttributeId());
+				assertions.addViolations(attribute, invalidConcepts.toConceptIds(), ValidationType.ATTRIBUTE_CARDINALITY, null);
+			}
+			return assertions;
+		});
+		addToRun(run, results);
+	}
+
+	private Assertion constructAssertion(ValidationRun run, Attribute attribute, ValidationType attributeCardinality, String skipMsg) {
+		return constructAssertion(run, attribute, attributeCardinality, skipMsg, null,null,null);
 	}
 
-	private Assertion constructAssertion(SnomedQueryService queryService, Attribute attribute, ValidationType validationType, String msg,
+	private Assertion constructAssertion(ValidationRun run, Attribute attribute, ValidationType validationType, String msg,
 			List<ConceptResult> currentInvalidConcepts, List<ConceptResult> previousInvalidConcepts, String domainConstraint) {
 		FailureType failureType = FailureType.ERROR;
 		if (!MANDATORY.equals(attribute.getRuleStrengthId())) {
 			failureType = FailureType.WARNING;
 		}
-		try {
-			attribute.setAttributeFsn(queryService.retrieveConcept(attribute.getAttributeId()).getFsn());
-		} catch (ServiceException e) {
-			LOGGER.error("Error while retrieving concept details for attribute '{}' and Content Type '{}'", attribute.getAttributeId(), attribute.getContentTypeId());
+		Assertion assertion = new Assertion(attribute, validationType, msg, failureType, currentInvalidConcepts, previousInvalidConcepts, domainConstraint);
+		assertion.setAttributeDescriptor(run.getAttributeDescriptor(attribute.getAttributeId()));
+		return assertion;
+	}
+
+	/**
+	 * Looks up the concepts of all attributes of the MRCM in one batch, so assertions don't retrieve them one at a time.
+	 */
+	private Map<String, AttributeDescriptor> resolveAttributeDescriptors(ValidationRun run) throws ServiceException {
+		Set<String> attributeIds = new HashSet<>();
+		for (Domain domain : run.getMRCMDomains().values()) {
+			for (Attribute attribute : domain.getAttributes()) {
+				attributeIds.add(attribute.getAttributeId());
+			}
+		}
+		if (run.getAttributeRangesMap() != null) {
+			attributeIds.addAll(run.getAttributeRangesMap().keySet());
+		}
+		Long2ObjectMap<ConceptResult> concepts = run.getConceptHydrator().hydrate(attributeIds.stream().map(Long::parseLong).toList());
+		Map<String, AttributeDescriptor> descriptors = new HashMap<>();
+		for (String attributeId : attributeIds) {
+			ConceptResult concept = concepts.get(Long.parseLong(attributeId));
+			if (concept != null) {
+				descriptors.put(attributeId, new AttributeDescriptor(attributeId, concept.getFsn(), concept.isActive()));
+			} else {
+				LOGGER.error("Concept not found for MRCM attribute '{}' in the {} view", attributeId, run.getContentType().getType());
+				descriptors.put(attributeId, AttributeDescriptor.notFound(attributeId));
+			}
 		}
-		return new Assertion(attribute, validationType, msg, failureType, currentInvalidConcepts, previousInvalidConcepts, domainConstraint);
+		return Collections.unmodifiableMap(descriptors);
 	}
-	private void executeAttributeRangeValidation(ValidationRun run, SnomedQueryService queryService, Map<Long, List<DescriptionImpl>> descriptions,
+
+	/**
+	 * Ranges of concepts are checked together in one scan of the relationships once every range has been registered.
+	 * Concrete ranges are checked by ECL. Each distinct attribute range is validated as a task of its own.
+	 */
+	private void executeAttributeRangeValidation(ValidationRun run, DescriptionIndex descriptions, RelationshipTable relationships,
 			List<Long> precoordinatedTypes) throws ServiceException {
 
-		Set<String> validationCompleted = new HashSet<>();
+		RangeConcepts rangeConcepts = retrieveRangeConcepts(run);
+		List<RangeUnit> rangeUnits = getRangeUnits(run);
+		List<RangeUnitResult> rangeUnitResults = ValidationScheduler.invokeAll(rangeUnits,
+				rangeUnit -> runAttributeRangeValidation(run, descriptions, rangeConcepts, rangeUnit, precoordinatedTypes));
+		// The engine checks are registered in the order of the ranges, so the results are reported in that order too
+		AttributeRangeEngine rangeEngine = new AttributeRangeEngine(relationships);
+		List<RangeCheck> rangeChecks = new ArrayList<>();
+		List<AssertionCollector> rangeAssertions = new ArrayList<>();
+		for (int i = 0; i < rangeUnits.size(); i++) {
+			RangeUnitResult result = rangeUnitResults.get(i);
+			rangeAssertions.add(result.assertions());
+			if (result.domainConcepts() != null) {
+				Attribute attributeRange = rangeUnits.get(i).attributeRange();
+				rangeChecks.add(new RangeCheck(attributeRange,
+						rangeEngine.addRangeCheck(result.domainConcepts(), Long.parseLong(attributeRange.getAttributeId()), result.conceptsInRange())));
+			}
+		}
+		List<ConceptSet> results = rangeEngine.run();
+		LOGGER.info("Checked {} attribute ranges against {} relationships", rangeChecks.size(), relationships.size());
+		List<AssertionCollector> rangeCheckResults = ValidationScheduler.invokeAll(rangeChecks, rangeCheck -> {
+			AssertionCollector assertions = new AssertionCollector();
+			List<Long> conceptIdsWithInvalidAttributeValue = results.get(rangeCheck.check()).toConceptIds();
+			assertions.addViolations(rangeCheck.attributeRange(), conceptIdsWithInvalidAttributeValue, ValidationType.ATTRIBUTE_RANGE, null);
+			return assertions;
+		});
+		rangeAssertions.addAll(rangeCheckResults);
+		addToRun(run, rangeAssertions);
+	}
+
+	/**
+	 * Lists the attribute ranges of every domain, each range of an attribute and content type only the first time it is met.
+	 */
+	private static List<RangeUnit> getRangeUnits(ValidationRun run) {
+		Set<String> validationProcessed = new HashSet<>();
+		List<RangeUnit> rangeUnits = new ArrayList<>();
 		for (Domain domain : run.getMRCMDomains().values()) {
-			runAttributeRangeValidation(run, queryService, descriptions, domain, precoordinatedTypes, validationCompleted);
+			for (Attribute attribute : domain.getAttributes()) {
+				if (domain.getAttributeRanges(attribute.getAttributeId()).isEmpty()) {
+					LOGGER.error("No range constraint found with attribute id {} for domain {}.", attribute.getAttributeId(), domain.getDomainId());
+					continue;
+				}
+				for (Attribute attributeRange : domain.getAttributeRanges(attribute.getAttributeId())) {
+					String rangeConstraint = attributeRange.getRangeConstraint();
+					String rangeKey = attributeRange.getAttributeId() + "_" + rangeConstraint+ "_" + attributeRange.getContentTypeId();
+					if (validationProcessed.contains(rangeKey)) {
+						LOGGER.info("Attribute range is done already:{}", attributeRange);
+						continue;
+					}
+					validationProcessed.add(rangeKey);
+					if (Strings.isNullOrEmpty(rangeConstraint) || Strings.isNullOrEmpty(attributeRange.getRangeRule())) {
+						throw new IllegalStateException("No attribute range constraint or rule is defined in attribute range " +  attributeRange);
+					}
+					rangeUnits.add(new RangeUnit(domain, attributeRange));
+				}
+			}
 		}
+		return rangeUnits;
 	}
 
 	/**
@@ -348,90 +756,76 @@ public class ValidationService {
 	 * @throws ServiceException *
 	 * 
 	*/
-	private void executeAttributeDomainValidation(ValidationRun run, SnomedQueryService queryService, List<Long> preCoordinatedTypes, String ruleStrength) throws ServiceException {
+	private void executeAttributeDomainValidation(ValidationRun run, List<Long> preCoordinatedTypes, String ruleStrength) throws ServiceException {
 		Map<String,List<Domain>> attributeDomainMap = new HashMap<>();
 		Map<String, List<Attribute>> attributesById = new HashMap<>();
-		filterAttributeDomainByStrength(run, queryService, preCoordinatedTypes, ruleStrength, attributeDomainMap, attributesById);
-		
-		for (String attributeId : attributeDomainMap.keySet()) {
+		filterAttributeDomainByStrength(run, preCoordinatedTypes, ruleStrength, attributeDomainMap, attributesById);
+
+		// Each attribute is a task of its own
+		List<AssertionCollector> results = ValidationScheduler.invokeAll(new ArrayList<>(attributeDomainMap.keySet()), attributeId -> {
+			AssertionCollector assertions = new AssertionCollector();
 			List<Domain> domains = attributeDomainMap.get(attributeId);
 			if (domains.isEmpty()) {
 				LOGGER.error("Attribute {} has no domain.", attributeId);
-				continue;
+				return assertions;
 			}
 
 			List<Long> violatedConcepts;
 			StringBuilder domainConstraintBuilder = new StringBuilder();
 			if (LATERALITY_ATTRIBUTE.equals(attributeId) && hasLateralizableDomain(domains)) {
-				violatedConcepts = processLateralizableDomainConstraintQuery(queryService, attributeId, domains, domainConstraintBuilder);
+				violatedConcepts = processLateralizableDomainConstraintQuery(run.getEclQueryCache(), run.getConceptHierarchy(), attributeId, domains, domainConstraintBuilder);
 			} else {
-				violatedConcepts = processNonNestedDomainConstraintQuery(queryService, attributeId, domains, domainConstraintBuilder);
+				violatedConcepts = processNonNestedDomainConstraintQuery(run.getEclQueryCache(), attributeId, domains, domainConstraintBuilder);
 			}
 			for (Attribute attribute : attributesById.get(attributeId)) {
-				processValidationResults(run, queryService, attribute, violatedConcepts, ValidationType.ATTRIBUTE_DOMAIN, domainConstraintBuilder.toString());
+				assertions.addViolations(attribute, violatedConcepts, ValidationType.ATTRIBUTE_DOMAIN, domainConstraintBuilder.toString());
 			}
-		}
+			return assertions;
+		});
+		addToRun(run, results);
 	}
 
 	private boolean hasLateralizableDomain(List<Domain> domains) {
 		return domains.stream().map(Domain::getDomainId).anyMatch(d -> d.equals(LATERALIZABLE_BODY_STRUCTURE_REFSET));
 	}
-	private List<Long> processLateralizableDomainConstraintQuery(SnomedQueryService queryService, String attributeId, List<Domain> domains, StringBuilder msgBuilder) throws ServiceException {
+	private List<Long> processLateralizableDomainConstraintQuery(EclQueryCache eclQueryCache, ConceptHierarchy hierarchy, String attributeId, List<Domain> domains, StringBuilder msgBuilder) throws ServiceException {
 		// This is a workaround for domain constraint ^ 723264001 but 272741003 |Laterality (attribute)| can only be used by a concept
 		// if one of its parents is a member of Lateralizable body structure reference set
 		// It was << ^ 723264001 before 20180731 release and changed to ^ 723264001 however based on above logic
-		// I think the domain constraint should be childOrSelfOf <<! ^ 723264001 but the query service doesn't support childOf or parentOf yet.
+		// I think the domain constraint should be childOrSelfOf <<! ^ 723264001, which is available as ConceptHierarchy.childrenOrSelf.
 
 		String withAttributeQuery = "*:" + attributeId + "=*";
-		List<Long> conceptsWithAttribute = queryService.eclQueryReturnConceptIdentifiers(withAttributeQuery, 0, -1).conceptIds();
-		List<Long> memberOfLateralizbleRefset = new ArrayList<>();
+		ConceptSet conceptsWithAttribute = eclQueryCache.conceptSet(withAttributeQuery);
+		ConceptSet memberOfLateralizbleRefset = ConceptSet.empty(eclQueryCache.getDictionary());
 		for (Domain domain : domains) {
 			if (domain.getDomainId().equals(LATERALIZABLE_BODY_STRUCTURE_REFSET)) {
-				List<Long> result = queryService.eclQueryReturnConceptIdentifiers(domain.getDomainConstraint(), 0, -1).conceptIds();
-				memberOfLateralizbleRefset.addAll(result);
+				memberOfLateralizbleRefset = memberOfLateralizbleRefset.or(eclQueryCache.conceptSet(domain.getDomainConstraint()));
 				msgBuilder.append(domain.getDomainConstraint());
 			}
 		}
-		List<Long> violatedConcepts = new ArrayList<>();
-		for (Long conceptId : conceptsWithAttribute) {
-			if (memberOfLateralizbleRefset.contains(conceptId)) {
-				continue;
-			}
-			// it should be parentOf but the query service doesn't support childOf or parentOf yet.
-			List<Long> ancestors = queryService.eclQueryReturnConceptIdentifiers(">" + conceptId, 0, -1).conceptIds();
-			if (ancestors.stream().noneMatch(concept -> memberOfLateralizbleRefset.contains(concept))) {
-				violatedConcepts.add(conceptId);
-			}
-		}
-		return violatedConcepts;
+		// Concepts that are members or have an ancestor that is a member, found in one walk down the hierarchy from the members
+		return conceptsWithAttribute.andNot(hierarchy.descendantsOrSelf(memberOfLateralizbleRefset)).toConceptIds();
 	}
 
-	private List<Long> processNonNestedDomainConstraintQuery(SnomedQueryService queryService, String attributeId,
+	private List<Long> processNonNestedDomainConstraintQuery(EclQueryCache eclQueryCache, String attributeId,
 			List<Domain> domains, StringBuilder msgBuilder) throws ServiceException {
-		List<Long> violatedConcepts;
-		String withAttributeButWrongDomainEcl = "(*:" + attributeId + "=*) MINUS ";
-		if (domains.size() > 1) {
-			withAttributeButWrongDomainEcl += "(";
-		}
+		String withAttributeEcl = "*:" + attributeId + "=*";
+		// The MINUS and OR are applied to the cached sub-query results, the domain constraints are shared with the other attributes
+		ConceptSet conceptsInDomains = ConceptSet.empty(eclQueryCache.getDictionary());
 		int counter = 0;
 		for (Domain domain : domains) {
 			if (counter++ > 0) {
-				withAttributeButWrongDomainEcl += " OR ";
 				msgBuilder.append(" OR ");
 			}
-			withAttributeButWrongDomainEcl += domain.getDomainConstraint();
 			msgBuilder.append(domain.getDomainConstraint());
-		}
-		if (domains.size() > 1) {
-			withAttributeButWrongDomainEcl += ")";
+			conceptsInDomains = conceptsInDomains.or(eclQueryCache.conceptSet(domain.getDomainConstraint()));
 		}
 		// run ECL query to retrieve failures
-		LOGGER.info("Selecting content within domain '{}' with attribute '{}' with any range using expression '{}'", domains.toArray(), attributeId, withAttributeButWrongDomainEcl);
-		violatedConcepts = queryService.eclQueryReturnConceptIdentifiers(withAttributeButWrongDomainEcl, 0, -1).conceptIds();
-		return violatedConcepts;
+		LOGGER.info("Selecting content within domain '{}' with attribute '{}' with any range using expression '({}) MINUS ({})'", domains.toArray(), attributeId, withAttributeEcl, msgBuilder);
+		return eclQueryCache.conceptSet(withAttributeEcl).andNot(conceptsInDomains).toConceptIds();
 	}
 
-	private void filterAttributeDomainByStrength(ValidationRun run, SnomedQueryService queryService, List<Long> precoordinatedTypes, String ruleStrengh,
+	private void filterAttributeDomainByStrength(ValidationRun run, List<Long> precoordinatedTypes, String ruleStrengh,
 			Map<String, List<Domain>> attributeDomainMap, Map<String, List<Attribute>> attributesById) throws ServiceException {
 		for (Domain domain : run.getMRCMDomains().values()) {
 			for (Attribute attribute : domain.getAttributes()) {
@@ -455,132 +849,119 @@ public class ValidationService {
 						attributeDomainMap.put(attribute.getAttributeId(), domainList);
 					}
 				} else {
-					run.addSkippedAssertion(constructAssertion(queryService, attribute, ValidationType.ATTRIBUTE_DOMAIN,
+					run.addSkippedAssertion(constructAssertion(run, attribute, ValidationType.ATTRIBUTE_DOMAIN,
 							" is skipped due to the content type is out of scope:" + attribute.getContentTypeId()));
 				}
 			}
 		}
 	}
 
-	private void runAttributeRangeValidation(ValidationRun run, SnomedQueryService queryService, Map<Long, List<DescriptionImpl>> descriptions, Domain domain,
-										 List<Long> preCoordinatedTypes, Set<String> validationProcessed) throws ServiceException {
-
-		for (Attribute attribute : domain.getAttributes()) {
-			if (domain.getAttributeRanges(attribute.getAttributeId()).isEmpty()) {
-				LOGGER.error("No range constraint found with attribute id {} for domain {}.", attribute.getAttributeId(), domain.getDomainId());
-				continue;
-			}
-			for (Attribute attributeRange : domain.getAttributeRanges(attribute.getAttributeId())) {
-				String domainConstraint = domain.getDomainConstraint();
-				String attributeId = attributeRange.getAttributeId();
-				String rangeConstraint = attributeRange.getRangeConstraint();
-				String rangeKey = attributeId + "_" + rangeConstraint+ "_" + attributeRange.getContentTypeId();
-				if (validationProcessed.contains(rangeKey)) {
-					LOGGER.info("Attribute range is done already:{}", attributeRange);
-					continue;
+	private RangeUnitResult runAttributeRangeValidation(ValidationRun run, DescriptionIndex descriptions, RangeConcepts rangeConcepts, RangeUnit rangeUnit,
+										 List<Long> preCoordinatedTypes) throws ServiceException {
+		AssertionCollector assertions = new AssertionCollector();
+		Attribute attributeRange = rangeUnit.attributeRange();
+		String domainConstraint = rangeUnit.domain().getDomainConstraint();
+		String attributeId = attributeRange.getAttributeId();
+		String rangeConstraint = attributeRange.getRangeConstraint();
+
+		validateConceptsInRange(run, assertions, descriptions, rangeConcepts, attributeRange, "range constraint", attributeRange.getRangeConstraint());
+		validateConceptsInRange(run, assertions, descriptions, rangeConcepts, attributeRange, "range rule", attributeRange.getRangeRule());
+
+		if (preCoordinatedTypes.contains(Long.parseLong(attributeRange.getContentTypeId()))) {
+			// check concrete attribute range constraint
+			if (isConcreteRangeConstraint(rangeConstraint)) {
+				String outOfRangeRule;
+				try {
+					outOfRangeRule = attributeRange.getCompiledRangeRule().outOfRange(attributeId).toEcl();
+				} catch (IllegalArgumentException e) {
+					LOGGER.error("Range rule of attribute '{}' can not be validated: {}", attributeId, e.getMessage());
+					assertions.addSkippedAssertion(constructAssertion(run, attributeRange, ValidationType.ATTRIBUTE_RANGE, "range rule can not be parsed: " + e.getMessage()));
+					return new RangeUnitResult(assertions, null, null);
 				}
-				validationProcessed.add(rangeKey);
-				if (Strings.isNullOrEmpty(rangeConstraint) || Strings.isNullOrEmpty(attributeRange.getRangeRule())) {
-					throw new IllegalStateException("No attribute range constraint or rule is defined in attribute range " +  attributeRange);
-				}
-
-				validateConceptsInRange(run, descriptions, queryService, attributeRange, "range constraint", attributeRange.getRangeConstraint());
-				validateConceptsInRange(run, descriptions, queryService, attributeRange, "range rule", attributeRange.getRangeRule());
+				LOGGER.info("Selecting content out of range for attribute '{}' with out range constraint expression '{}'", attributeId, outOfRangeRule);
+				List<Long> conceptIdsWithInvalidAttributeValue = run.getEclQueryCache().conceptIds(outOfRangeRule);
+				assertions.addViolations(attributeRange, conceptIdsWithInvalidAttributeValue, ValidationType.ATTRIBUTE_RANGE, null);
+			} else {
+				// Same as ECL domainConstraint : attributeId != (rangeConstraint), the range is evaluated once and shared by the domains using it
+				ConceptSet domainConcepts = run.getEclQueryCache().conceptSet(domainConstraint);
+				ConceptSet conceptsInRange = run.getEclQueryCache().conceptSet(rangeConstraint);
+				return new RangeUnitResult(assertions, domainConcepts, conceptsInRange);
+			}
+		} else {
+			assertions.addSkippedAssertion(constructAssertion(run, attributeRange, ValidationType.ATTRIBUTE_RANGE, "content type:" + attributeRange.getContentTypeId() + " is out of scope."));
+		}
+		return new RangeUnitResult(assertions, null, null);
+	}
 
-				if (preCoordinatedTypes.contains(Long.parseLong(attributeRange.getContentTypeId()))) {
-					String outOfRangeRule = null;
-					// check concrete attribute range constraint
-					if (isConcreteRangeConstraint(rangeConstraint)) {
-						String matchRangeRule = removeCardinality(attributeRange.getRangeRule());
-						outOfRangeRule = constructOutOfRangeRule(matchRangeRule);
-					} else {
-						String baseEcl = domainConstraint;
-						baseEcl += baseEcl.contains(":") ? ", " : ": ";
-						baseEcl += attributeId;
-						outOfRangeRule = baseEcl + " != ";
-						outOfRangeRule = containsMultipleConceptIds(rangeConstraint)
-								? outOfRangeRule + "(" + rangeConstraint + ")"
-								: outOfRangeRule + rangeConstraint;
+	/**
+	 * Parses the concepts referenced by every range constraint and rule of the MRCM and retrieves them together in one pass over the store,
+	 * so each concept is looked up once however many ranges refer to it.
+	 */
+	private RangeConcepts retrieveRangeConcepts(ValidationRun run) throws ServiceException {
+		Map<String, List<ConceptImpl>> conceptsByRange = new HashMap<>();
+		LongOpenHashSet conceptIds = new LongOpenHashSet();
+		for (Domain domain : run.getMRCMDomains().values()) {
+			for (Attribute attribute : domain.getAttributes()) {
+				for (Attribute attributeRange : domain.getAttributeRanges(attribute.getAttributeId())) {
+					for (String range : Arrays.asList(attributeRange.getRangeConstraint(), attributeRange.getRangeRule())) {
+						if (range != null && !conceptsByRange.containsKey(range)) {
+							List<ConceptImpl> concepts = getConceptsFromRange(range);
+							conceptsByRange.put(range, concepts);
+							concepts.forEach(concept -> conceptIds.add(concept.getId().longValue()));
+						}
 					}
-					LOGGER.info("Selecting content out of range for attribute '{}' with out range constraint expression '{}'", attributeId, outOfRangeRule);
-					List<Long> conceptIdsWithInvalidAttributeValue = queryService.eclQueryReturnConceptIdentifiers(outOfRangeRule, 0, -1).conceptIds();
-					processValidationResults(run, queryService, attributeRange, conceptIdsWithInvalidAttributeValue, ValidationType.ATTRIBUTE_RANGE, null);
-				} else {
-					run.addSkippedAssertion(constructAssertion(queryService, attributeRange, ValidationType.ATTRIBUTE_RANGE, "content type:" + attributeRange.getContentTypeId() + " is out of scope."));
 				}
 			}
 		}
+		Long2ObjectMap<ConceptResult> concepts = run.getConceptHydrator().hydrateInOnePass(conceptIds);
+		LOGGER.info("Retrieved {} of the {} concepts used in {} MRCM ranges", concepts.size(), conceptIds.size(), conceptsByRange.size());
+		return new RangeConcepts(conceptsByRange, concepts);
 	}
 
-	private void validateConceptsInRange(ValidationRun run, Map<Long, List<DescriptionImpl>> descriptions, SnomedQueryService queryService, Attribute attribute,
-			String column, String range) throws ServiceException {
+	private void validateConceptsInRange(ValidationRun run, AssertionCollector assertions, DescriptionIndex descriptions, RangeConcepts rangeConcepts, Attribute attribute,
+			String column, String range) {
 
-		List<ConceptImpl> concepts = getConceptsFromRange(range);
-		Set<ConceptImpl> notFoundConcepts = new HashSet<>();
-		List<ConceptImpl> inactiveConcepts = new ArrayList<>();
-		List<ConceptImpl> invalidTermConcepts = new ArrayList<>();
-		concepts.forEach(concept -> {
-			ConceptResult existingConcept;
-			try {
-				existingConcept = queryService.retrieveConcept(concept.getId().toString());
-			} catch (ServiceException e) {
-				existingConcept = null;
-				LOGGER.error("Error while retrieving concept details for concept {}", concept.getId());
-			}
+		// Each concept is reported once per assertion, a concept that doesn't exist is reported as inactive too
+		Map<Long, ConceptImpl> notFoundConcepts = new LinkedHashMap<>();
+		Map<Long, ConceptImpl> inactiveConcepts = new LinkedHashMap<>();
+		Map<Long, ConceptImpl> invalidTermConcepts = new LinkedHashMap<>();
+		for (ConceptImpl concept : rangeConcepts.getConcepts(range)) {
+			ConceptResult existingConcept = rangeConcepts.concepts().get(concept.getId().longValue());
 			if (existingConcept == null) {
-				ConceptImpl foundConcept = notFoundConcepts.stream().filter(c -> concept.getId().equals(c.getId())).findAny().orElse(null);
-				if (foundConcept == null) {
-					inactiveConcepts.add(concept);
-				}
-				notFoundConcepts.add(concept);
+				notFoundConcepts.putIfAbsent(concept.getId(), concept);
+				inactiveConcepts.putIfAbsent(concept.getId(), concept);
 			} else if (!existingConcept.isActive()) {
-				ConceptImpl foundConcept = inactiveConcepts.stream().filter(c -> concept.getId().equals(c.getId())).findAny().orElse(null);
-				if (foundConcept == null) {
-					inactiveConcepts.add(concept);
-				}
-			} else {
-				boolean termMatched = false;
-				List<DescriptionImpl> descriptionList = descriptions.get(concept.getId());
-				for (Description description : descriptionList) {
-					if (description.isActive() && description.getTerm().equals(concept.getFsn())) {
-						termMatched = true;
-						break;
-					}
-				}
-				if (!termMatched) {
-					ConceptImpl foundConcept = invalidTermConcepts.stream().filter(c -> concept.getId().equals(c.getId())).findAny().orElse(null);
-					if (foundConcept == null) {
-						invalidTermConcepts.add(concept);
-					}
-				}
+				inactiveConcepts.putIfAbsent(concept.getId(), concept);
+			} else if (!descriptions.hasActiveTerm(concept.getId(), concept.getFsn())) {
+				invalidTermConcepts.putIfAbsent(concept.getId(), concept);
 			}
-		});
+		}
 
 		Assertion assertion;
 		String msg;
 		if (notFoundConcepts.size() != 0) {
-			List<ConceptResult> currentViolatedConcepts = notFoundConcepts.stream()
+			List<ConceptResult> currentViolatedConcepts = notFoundConcepts.values().stream()
 					.map(concept -> new ConceptResult(concept.getId().toString(), null, "0", null, null, concept.getFsn(), null))
 					.collect(Collectors.toList());
 			msg = String.format("Concepts used in %s for MRCM attribute range %s do not exist", column, attribute.getUuid().toString());
 			assertion = new Assertion(attribute, ValidationType.ATTRIBUTE_RANGE, ValidationSubType.ATTRIBUTE_RANGE_INVALID_CONCEPT, msg, FailureType.ERROR, currentViolatedConcepts, null, null);
-			run.addCompletedAssertion(assertion);
+			assertions.addCompletedAssertion(assertion);
 		}
 		if (inactiveConcepts.size() != 0) {
-			List<ConceptResult> currentViolatedConcepts = inactiveConcepts.stream()
+			List<ConceptResult> currentViolatedConcepts = inactiveConcepts.values().stream()
 					.map(concept -> new ConceptResult(concept.getId().toString(), null, "0", null, null, concept.getFsn(), null))
 					.collect(Collectors.toList());
 			msg = String.format("Concepts used in %s for MRCM attribute range %s are inactive", column, attribute.getUuid().toString());
 			assertion = new Assertion(attribute, ValidationType.ATTRIBUTE_RANGE, ValidationSubType.ATTRIBUTE_RANGE_INACTIVE_CONCEPT, msg, FailureType.ERROR, currentViolatedConcepts, null, null);
-			run.addCompletedAssertion(assertion);
+			assertions.addCompletedAssertion(assertion);
 		}
 		if (invalidTermConcepts.size() != 0) {
-			List<ConceptResult> currentViolatedConcepts = invalidTermConcepts.stream()
+			List<ConceptResult> currentViolatedConcepts = invalidTermConcepts.values().stream()
 					.map(concept -> new ConceptResult(concept.getId().toString(), null, "1", null, null, concept.getFsn(), null))
 					.collect(Collectors.toList());
 			msg = String.format("Terms used in the %s for MRCM attribute range %s are invalid", column, attribute.getUuid().toString());
 			assertion = new Assertion(attribute, ValidationType.ATTRIBUTE_RANGE, ValidationSubType.ATTRIBUTE_RANGE_INVALID_TERM, msg, FailureType.ERROR, currentViolatedConcepts, null, null);
-			run.addCompletedAssertion(assertion);
+			assertions.addCompletedAssertion(assertion);
 		}
 	}
 
@@ -593,81 +974,6 @@ public class ValidationService {
 		return false;
 	}
 
-	private boolean containsMultipleConceptIds(String expression) {
-		return expression.matches(".*(\\d){6,18}[^\\d]*(\\d){6,18}.*");
-	}
-	
-	private static String constructOutOfRangeRule(String rangeRule) {
-		Map<String, String> replacementMap = new HashMap<>();
-		replacementMap.put("<", ">=");
-		replacementMap.put(">", "<=");
-		replacementMap.put("<=", ">");
-		replacementMap.put(">=", "<");
-		replacementMap.put("=", "!=");
-		replacementMap.put("!=", "=");
-
-		String[] splits = rangeRule.split("\\s+");
-		StringBuilder builder = new StringBuilder();
-		String previous = null;
-		boolean isConcrete = false;
-		boolean isInScope = false;
-		for (String split : splits) {
-			if (split.contains("(")) {
-				isInScope = true;
-			}
-			if (split.contains(")")) {
-				isInScope = false;
-			}
-			if (split.startsWith("#") || split.startsWith("\"")) {
-				isConcrete = true;
-				if (previous != null && replacementMap.containsKey(previous)) {
-					builder.append(replacementMap.get(previous));
-					builder.append(" ");
-				}
-			} else {
-				if (previous != null) {
-					if ((previous.equals("=") || previous.equals("!=")) && !split.startsWith("*")) {
-						// replace = with != for non wildcard range constraint
-						builder.append(replacementMap.get(previous));
-					} else {
-						builder.append(previous);
-					}
-					builder.append(" ");
-				}
-			}
-			if (isConcrete && isInScope) {
-				previous = split.equalsIgnoreCase("AND") ? "OR" : split;
-			} else {
-				previous = split;
-			}
-		}
-		if (previous != null) {
-			builder.append(previous);
-		}
-		return builder.toString();
-	}
-
-	private String removeCardinality(String rangeRule) {
-		Pattern cardinalityPattern = Pattern.compile("(.*)(\\[.*\\.\\..*\\])(.*)");
-		String[] splits = rangeRule.split("\\s+");
-		StringBuilder builder = new StringBuilder();
-		for (String split : splits) {
-			Matcher matcher = cardinalityPattern.matcher(split);
-			if (matcher.matches()) {
-				if (!matcher.group(1).isEmpty()) {
-					builder.append(matcher.group(1));
-				}
-				if (!matcher.group(3).isEmpty()) {
-					builder.append(matcher.group(3));
-				}
-			} else {
-				builder.append(split);
-				builder.append(" ");
-			}
-		}
-		return builder.toString();
-	}
-
 	private static List<ConceptImpl> getConceptsFromRange(String range) {
 		if (StringUtils.isEmpty(range)) {
 			return Collections.emptyList();
@@ -695,73 +1001,68 @@ public class ValidationService {
 		private static final int ranContentTypeIndex = 3;
 		public static final int attContentTypeIndex = 5;
 
-		private Map<String, Domain> domains = new HashMap<>();
-		private Map<String, List<Attribute>> attributeRangeMap = new HashMap<>();
-		private Set<Long> ungroupedAttributes = new HashSet<>();
-		private Set<Long> inUseConceptIds = new HashSet<>();
-		private Set<ReferenceSetMember> lateralizableRefsets = new HashSet<>();
-		private List<ReferenceSetMember> anatomyStructureAndPartRefsets = new ArrayList<>();
-		private List<ReferenceSetMember> anatomyStructureAndEntireRefsets = new ArrayList<>();
+		// Raw MRCM rows, collected concurrently by the importer's file readers and joined once loading has completed, see buildModel
+		private final Queue<MRCMRow> domainRows = new ConcurrentLinkedQueue<>();
+		private final Queue<MRCMRow> attributeDomainRows = new ConcurrentLinkedQueue<>();
+		private final Queue<MRCMRow> attributeRangeRows = new ConcurrentLinkedQueue<>();
+		// Filled concurrently by the importer's file readers
+		private final Set<ReferenceSetMember> lateralizableRefsets = ConcurrentHashMap.newKeySet();
+		private final Queue<ReferenceSetMember> anatomyStructureAndPartRefsets = new ConcurrentLinkedQueue<>();
+		private final Queue<ReferenceSetMember> anatomyStructureAndEntireRefsets = new ConcurrentLinkedQueue<>();
+
+		// MRCM model, built by buildModel
+		private final Map<String, Domain> domains = new HashMap<>();
+		private final Map<String, List<Attribute>> attributeRangeMap = new HashMap<>();
+		private final Set<Long> ungroupedAttributes = new HashSet<>();
+		private final Set<Long> inUseConceptIds = new HashSet<>();
 
 		@Override
 		public void newReferenceSetMemberState(String[] fieldNames, String id, String effectiveTime, String active, String moduleId, String refsetId, String referencedComponentId, String... otherValues) {
-			synchronized (this) {
-				if ("1".equals(active) || LATERALIZABLE_BODY_STRUCTURE_REFSET.equals(refsetId) || ANATOMY_STRUCTURE_AND_PART_REFSET.equals(refsetId) || ANATOMY_STRUCTURE_AND_ENTIRE_REFSET.equals(refsetId)) {
-					switch (refsetId) {
-						case MRCM_DOMAIN_REFSET:
-							// use proximal primitive domain constraint instead. see MRCM doc
-							getCreateDomain(referencedComponentId).setDomainConstraint(otherValues[proximalPrimitiveConstraint]);
-							break;
-						case MRCM_ATTRIBUTE_DOMAIN_REFSET:
-							Domain domain = getCreateDomain(otherValues[attDomainIdIndex]);
-							Attribute attribute = createAttributeDomain(id, referencedComponentId, otherValues);
-							domain.addAttribute(attribute);
-							updateAttributeRange(attribute.getAttributeId(), domain);
-							loadUngroupedAttributes(active, referencedComponentId, otherValues);
-							break;
-						case MRCM_ATTRIBUTE_RANGE_REFSET:
-							Attribute attributeRange =createAttributeRange(id, referencedComponentId, otherValues);
-							addInUseConceptIds(attributeRange.getRangeRule());
-							addInUseConceptIds(attributeRange.getRangeConstraint());
-							break;
-						case LATERALIZABLE_BODY_STRUCTURE_REFSET:
-							lateralizableRefsets.add(new ReferenceSetMember(id, effectiveTime, "1".equals(active), moduleId, refsetId, referencedComponentId));
-							break;
-						case ANATOMY_STRUCTURE_AND_PART_REFSET:
-							anatomyStructureAndPartRefsets.add(new ReferenceSetMember(id, effectiveTime, "1".equals(active), moduleId, refsetId, referencedComponentId, otherValues));
-							break;
-						case ANATOMY_STRUCTURE_AND_ENTIRE_REFSET:
-							anatomyStructureAndEntireRefsets.add(new ReferenceSetMember(id, effectiveTime, "1".equals(active), moduleId, refsetId, referencedComponentId, otherValues));
-							break;
-						default:
-							LOGGER.trace("Refset member from refsetId {} not required for MRCM processing", refsetId);
-							break;
-					}
-				}
+			// Most rows handed over are from simple and association refsets that are not needed, reject those without taking any lock
+			switch (refsetId) {
+				case MRCM_DOMAIN_REFSET -> addMRCMRow(domainRows, id, active, referencedComponentId, otherValues);
+				case MRCM_ATTRIBUTE_DOMAIN_REFSET -> addMRCMRow(attributeDomainRows, id, active, referencedComponentId, otherValues);
+				case MRCM_ATTRIBUTE_RANGE_REFSET -> addMRCMRow(attributeRangeRows, id, active, referencedComponentId, otherValues);
+				case LATERALIZABLE_BODY_STRUCTURE_REFSET ->
+						lateralizableRefsets.add(new ReferenceSetMember(id, effectiveTime, "1".equals(active), moduleId, refsetId, referencedComponentId));
+				case ANATOMY_STRUCTURE_AND_PART_REFSET ->
+						anatomyStructureAndPartRefsets.add(new ReferenceSetMember(id, effectiveTime, "1".equals(active), moduleId, refsetId, referencedComponentId, otherValues));
+				case ANATOMY_STRUCTURE_AND_ENTIRE_REFSET ->
+						anatomyStructureAndEntireRefsets.add(new ReferenceSetMember(id, effectiveTime, "1".equals(active), moduleId, refsetId, referencedComponentId, otherValues));
+				default -> LOGGER.trace("Refset member from refsetId {} not required for MRCM processing", refsetId);
 			}
 		}
 
-		private void updateAttributeRange(String attributeId, Domain domain) {
-			for (Attribute attribute : domain.getAttributes()) {
-				if (attributeRangeMap.get(attribute.getAttributeId()) == null) {
-					return;
-				}
-				for (Attribute range : attributeRangeMap.get(attribute.getAttributeId())) {
-					domain.addAttributeRange(range);
-				}
+		private void addMRCMRow(Queue<MRCMRow> rows, String id, String active, String referencedComponentId, String... otherValues) {
+			if ("1".equals(active)) {
+				rows.add(new MRCMRow(id, referencedComponentId, otherValues));
 			}
 		}
 
-		private void updateDomainWithAttributeRange() {
-			for (Domain domain : domains.values()) {
-				for (Attribute attribute : domain.getAttributes()) {
-					if (attributeRangeMap.containsKey(attribute.getAttributeId())) {
-						for (Attribute range : attributeRangeMap.get(attribute.getAttributeId())) {
-							domain.addAttributeRange(range);
-						}
-					}
-				}
+		/**
+		 * Joins the MRCM rows into the domain and attribute model in a single pass over each refset.
+		 * Must be called once the MRCM refsets are loaded.
+		 */
+		public void buildModel() {
+			for (MRCMRow row : domainRows) {
+				// use proximal primitive domain constraint instead. see MRCM doc
+				getCreateDomain(row.referencedComponentId()).setDomainConstraint(row.otherValues()[proximalPrimitiveConstraint]);
+			}
+			for (MRCMRow row : attributeRangeRows) {
+				Attribute attributeRange = createAttributeRange(row.id(), row.referencedComponentId(), row.otherValues());
+				attributeRangeMap.computeIfAbsent(attributeRange.getAttributeId(), k -> new ArrayList<>()).add(attributeRange);
+				addInUseConceptIds(attributeRange.getRangeRule());
+				addInUseConceptIds(attributeRange.getRangeConstraint());
 			}
+			for (MRCMRow row : attributeDomainRows) {
+				Domain domain = getCreateDomain(row.otherValues()[attDomainIdIndex]);
+				Attribute attribute = createAttributeDomain(row.id(), row.referencedComponentId(), row.otherValues());
+				domain.addAttribute(attribute);
+				attributeRangeMap.getOrDefault(attribute.getAttributeId(), Collections.emptyList()).forEach(domain::addAttributeRange);
+				loadUngroupedAttributes(row.referencedComponentId(), row.otherValues());
+			}
+			LOGGER.info("MRCM model built from {} domain, {} attribute domain and {} attribute range members", domainRows.size(), attributeDomainRows.size(),
+					attributeRangeRows.size());
 		}
 
 		public Map<String, Domain> getDomains() {
@@ -769,15 +1070,15 @@ public class ValidationService {
 		}
 
 		public Set <ReferenceSetMember> getLateralizableRefsets() {
-			return lateralizableRefsets;
+			return new HashSet<>(lateralizableRefsets);
 		}
 
 		public List<ReferenceSetMember> getAnatomyStructureAndEntireRefsets() {
-			return anatomyStructureAndEntireRefsets;
+			return new ArrayList<>(anatomyStructureAndEntireRefsets);
 		}
 
 		public List<ReferenceSetMember> getAnatomyStructureAndPartRefsets() {
-			return anatomyStructureAndPartRefsets;
+			return new ArrayList<>(anatomyStructureAndPartRefsets);
 		}
 
 		private Domain getCreateDomain(String referencedComponentId) {
@@ -813,14 +1114,6 @@ public class ValidationService {
 			attribute.setRangeRule(otherValues[rangeRuleIndex]);
 			attribute.setRuleStrengthId(otherValues[2]);
 			attribute.setType(Type.RANGE);
-			if (attributeRangeMap.containsKey(attribute.getAttributeId())) {
-				attributeRangeMap.get(attribute.getAttributeId()).add(attribute);
-			} else {
-				List<Attribute> list = new ArrayList<>();
-				list.add(attribute);
-				attributeRangeMap.put(attributeId, list);
-			}
-			updateDomainWithAttributeRange();
 			return attribute;
 		}
 
@@ -828,14 +1121,12 @@ public class ValidationService {
 			return ungroupedAttributes;
 		}
 
-		private void loadUngroupedAttributes(String active, String referencedComponentId, String... otherValues) {
-			if ("1".equals(active)) {
-				// id	effectiveTime	active	moduleId	refsetId	referencedComponentId	domainId	grouped	attributeCardinality	attributeInGroupCardinality	ruleStrengthId	contentTypeId
-				// 																otherValues .. 	0			1		2						3							4				5
-				// Ungrouped attribute
-				if ("0".equals(otherValues[1])) {
-					ungroupedAttributes.add(parseLong(referencedComponentId));
-				}
+		private void loadUngroupedAttributes(String referencedComponentId, String... otherValues) {
+			// id	effectiveTime	active	moduleId	refsetId	referencedComponentId	domainId	grouped	attributeCardinality	attributeInGroupCardinality	ruleStrengthId	contentTypeId
+			// 																otherValues .. 	0			1		2						3							4				5
+			// Ungrouped attribute
+			if ("0".equals(otherValues[1])) {
+				ungroupedAttributes.add(parseLong(referencedComponentId));
 			}
 		}
 
@@ -853,84 +1144,238 @@ public class ValidationService {
 
 	protected static class OWLExpressionAndDescriptionFactory extends ComponentStoreComponentFactoryImpl {
 
-		private final AxiomRelationshipConversionService axiomConverter;
+		private static final int CONVERSION_QUEUE_SIZE = 10_000;
+		private static final long CONVERSION_TIMEOUT_MINUTES = 60;
+
 		private final Logger logger = LoggerFactory.getLogger(getClass());
 		private final ComponentStore componentStore;
-		private final Set<Long> conceptsUsedInMRCMTemplates;
-		private final Map<Long, List<DescriptionImpl>> descriptions;
+		private final Set<Long> ungroupedAttributes;
+		private final ConceptIdSet conceptsUsedInMRCMTemplates;
+		private final DescriptionIndex descriptions;
 		private final Map<String, AtomicInteger> relationshipRoleGroupIncrementer;
+		private final AxiomRelationshipStore axiomRelationships = new AxiomRelationshipStore();
+		private final Long2ObjectOpenHashMap<String> idStrings = new Long2ObjectOpenHashMap<>();
+
+		// Axioms are converted on a worker pool and applied to the store in the order they were read, see commitAxiom
+		private final ThreadLocal<AxiomRelationshipConversionService> axiomConverters;
+		private final AtomicLong axiomSequence = new AtomicLong();
+		private final Map<Long, ConvertedAxiom> convertedAxioms = new HashMap<>();
+		private long nextAxiomToCommit;
+		private RuntimeException axiomFailure;
+		private String failedAxiomId;
+		private ExecutorService axiomConversionExecutor;
+		private final int conversionThreads;
 
 		public OWLExpressionAndDescriptionFactory(ComponentStore componentStore, Set<Long> ungroupedAttributes, Set<Long> conceptsUsedInMRCMTemplates) {
+			this(componentStore, ungroupedAttributes, conceptsUsedInMRCMTemplates, Runtime.getRuntime().availableProcessors());
+		}
+
+		/**
+		 * @param conversionThreads the number of threads converting OWL axioms while the release is read
+		 */
+		public OWLExpressionAndDescriptionFactory(ComponentStore componentStore, Set<Long> ungroupedAttributes, Set<Long> conceptsUsedInMRCMTemplates,
+				int conversionThreads) {
 			super(componentStore);
+			this.conversionThreads = conversionThreads;
 			this.componentStore = componentStore;
-			this.axiomConverter = new AxiomRelationshipConversionService(ungroupedAttributes);
-			this.conceptsUsedInMRCMTemplates = conceptsUsedInMRCMTemplates;
-			this.descriptions = new Long2ObjectArrayMap<>();
+			this.axiomConverters = ThreadLocal.withInitial(() -> new AxiomRelationshipConversionService(ungroupedAttributes));
+			this.ungroupedAttributes = ungroupedAttributes;
+			this.conceptsUsedInMRCMTemplates = new ConceptIdSet(conceptsUsedInMRCMTemplates);
+			this.descriptions = new DescriptionIndex(conceptsUsedInMRCMTemplates.size());
 			this.relationshipRoleGroupIncrementer = new HashMap<>();
 		}
 
 		@Override
 		public void newReferenceSetMemberState(String[] fieldNames, String id, String effectiveTime, String active, String moduleId, String refsetId, String referencedComponentId, String... otherValues) {
-			synchronized (this) {
-				if("1".equals(active) && OWL_AXIOM_REFSET.equals(refsetId)) {
-					// OWL OntologyAxiom reference set
-					// Fields: id	effectiveTime	active	moduleId	refsetId	referencedComponentId	owlExpression
-					String owlExpression = otherValues[0];
+			if("1".equals(active) && OWL_AXIOM_REFSET.equals(refsetId)) {
+				// OWL OntologyAxiom reference set
+				// Fields: id	effectiveTime	active	moduleId	refsetId	referencedComponentId	owlExpression
+				String owlExpression = otherValues[0];
+				long sequence = axiomSequence.getAndIncrement();
+				getAxiomConversionExecutor().execute(() -> {
+					ConvertedAxiom convertedAxiom = null;
 					try {
-						AtomicInteger groupOffset = getGroupOffset(referencedComponentId);
-						AxiomRepresentation axiom = axiomConverter.convertAxiomToRelationships(owlExpression, groupOffset);
-						if (axiom != null) {
-							if (axiom.getLeftHandSideNamedConcept() != null && axiom.getRightHandSideRelationships() != null) {
-								// Regular axiom
-								addRelationships(id, axiom.getLeftHandSideNamedConcept(), axiom.getRightHandSideRelationships(), moduleId, effectiveTime);
-							} else if (axiom.getRightHandSideNamedConcept() != null && axiom.getLeftHandSideRelationships() != null) {
-								// skip GCI axioms
-								logger.info("GCI axiom id {}", id);
-							}
-						}
-					} catch (ConversionException | OWLParserException e) {
-						logger.error("OntologyAxiom conversion failed for refset member {}", id, e);
+						convertedAxiom = convertAxiom(id, referencedComponentId, owlExpression);
+					} catch (RuntimeException e) {
+						recordAxiomFailure(id, e);
+					} finally {
+						// Committed even when the conversion failed, otherwise the axioms read after it would never be applied
+						commitAxiom(sequence, convertedAxiom != null ? convertedAxiom : new ConvertedAxiom(id, referencedComponentId, null, 0));
 					}
+				});
+			}
+		}
+
+		/**
+		 * Waits for the axioms read so far to be converted and added to the component store.
+		 * Must be called once the release files are loaded and before the component store is used.
+		 * Throws the first failure to convert or apply an axiom, once all axioms have been processed.
+		 */
+		public void completeAxiomConversion() throws ReleaseImportException {
+			ExecutorService executor;
+			synchronized (this) {
+				executor = axiomConversionExecutor;
+				axiomConversionExecutor = null;
+			}
+			if (executor == null) {
+				return;
+			}
+			executor.shutdown();
+			try {
+				if (!executor.awaitTermination(CONVERSION_TIMEOUT_MINUTES, TimeUnit.MINUTES)) {
+					throw new ReleaseImportException("Timed out waiting for OWL axiom conversion.");
 				}
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				throw new ReleaseImportException("Interrupted while waiting for OWL axiom conversion.", e);
+			}
+			synchronized (this) {
+				if (axiomFailure != null) {
+					throw new ReleaseImportException("Failed to convert or add OWL axiom refset member " + failedAxiomId + ".", axiomFailure);
+				}
+				if (!convertedAxioms.isEmpty() || nextAxiomToCommit != axiomSequence.get()) {
+					throw new ReleaseImportException("OWL axiom conversion did not complete, " + (axiomSequence.get() - nextAxiomToCommit) + " axioms were not added.");
+				}
+			}
+		}
+
+		private synchronized ExecutorService getAxiomConversionExecutor() {
+			if (axiomConversionExecutor == null) {
+				// When the queue is full the reading thread converts the axiom itself, which keeps the number of axioms held in memory bounded
+				axiomConversionExecutor = new ThreadPoolExecutor(conversionThreads, conversionThreads, 0L, TimeUnit.MILLISECONDS, new ArrayBlockingQueue<>(CONVERSION_QUEUE_SIZE),
+						runnable -> {
+							Thread thread = new Thread(runnable, "axiom-conversion");
+							thread.setDaemon(true);
+							return thread;
+						}, new ThreadPoolExecutor.CallerRunsPolicy());
+			}
+			return axiomConversionExecutor;
+		}
+
+		/**
+		 * Converts the axiom numbering its role groups from 1. The groups are renumbered against the concept's group offset when committed.
+		 */
+		private ConvertedAxiom convertAxiom(String id, String referencedComponentId, String owlExpression) {
+			try {
+				AtomicInteger localGroupOffset = new AtomicInteger(1);
+				AxiomRepresentation axiom = axiomConverters.get().convertAxiomToRelationships(owlExpression, localGroupOffset);
+				return new ConvertedAxiom(id, referencedComponentId, axiom, localGroupOffset.get() - 1);
+			} catch (ConversionException | OWLParserException e) {
+				logger.error("OntologyAxiom conversion failed for refset member {}", id, e);
+			}
+			return new ConvertedAxiom(id, referencedComponentId, null, 0);
+		}
+
+		/**
+		 * Holds converted axioms back until all those read before them have been applied,
+		 * so that role group numbers per concept are the same as when converting one axiom at a time.
+		 */
+		private synchronized void commitAxiom(long sequence, ConvertedAxiom convertedAxiom) {
+			convertedAxioms.put(sequence, convertedAxiom);
+			ConvertedAxiom next;
+			while ((next = convertedAxioms.remove(nextAxiomToCommit)) != null) {
+				try {
+					applyAxiom(next);
+				} catch (RuntimeException e) {
+					recordAxiomFailure(next.id(), e);
+				} finally {
+					nextAxiomToCommit++;
+				}
+			}
+		}
+
+		/**
+		 * Keeps the first failure to be thrown by {@link #completeAxiomConversion()}, later ones are added to it as suppressed.
+		 */
+		private synchronized void recordAxiomFailure(String id, RuntimeException failure) {
+			if (axiomFailure == null) {
+				axiomFailure = failure;
+				failedAxiomId = id;
+			} else if (axiomFailure != failure) {
+				axiomFailure.addSuppressed(failure);
+			}
+		}
+
+		private void applyAxiom(ConvertedAxiom convertedAxiom) {
+			AxiomRepresentation axiom = convertedAxiom.axiom();
+			if (axiom == null) {
+				return;
+			}
+			int groupShift = getGroupOffset(convertedAxiom.referencedComponentId()).getAndAdd(convertedAxiom.groupsUsed()) - 1;
+			if (axiom.getLeftHandSideNamedConcept() != null && axiom.getRightHandSideRelationships() != null) {
+				// Regular axiom
+				addRelationships(convertedAxiom.id(), axiom.getLeftHandSideNamedConcept(), shiftGroups(axiom.getRightHandSideRelationships(), groupShift));
+			} else if (axiom.getRightHandSideNamedConcept() != null && axiom.getLeftHandSideRelationships() != null) {
+				// skip GCI axioms
+				logger.info("GCI axiom id {}", convertedAxiom.id());
 			}
 		}
 
+		private static Map<Integer, List<Relationship>> shiftGroups(Map<Integer, List<Relationship>> groups, int groupShift) {
+			if (groupShift == 0) {
+				return groups;
+			}
+			Map<Integer, List<Relationship>> shifted = new LinkedHashMap<>();
+			// Group 0 is reserved for non-grouped relationships
+			groups.forEach((group, relationships) -> shifted.put(group == 0 ? 0 : group + groupShift, relationships));
+			return shifted;
+		}
+
 		@Override
 		public void newDescriptionState(String id, String effectiveTime, String active, String moduleId, String conceptId, String languageCode, String typeId, String term, String caseSignificanceId) {
-			if (conceptsUsedInMRCMTemplates.contains(Long.parseLong(conceptId))) {
-				DescriptionImpl description = new DescriptionImpl(id, FactoryUtils.parseActive(active), term, conceptId);
-				if (descriptions.containsKey(Long.valueOf(conceptId))) {
-					descriptions.get(Long.valueOf(conceptId)).add(description);
-				} else {
-					List<DescriptionImpl> newDescriptions = new ArrayList<>();
-					newDescriptions.add(description);
-					descriptions.put(Long.valueOf(conceptId), newDescriptions);
-				}
+			// Called for every description in the release, only those of concepts in use are parsed
+			if (conceptsUsedInMRCMTemplates.contains(conceptId)) {
+				descriptions.add(ConceptIdSet.parse(conceptId), Long.parseLong(id), FactoryUtils.parseActive(active), term);
 			}
 		}
 
-		public Map<Long, List<DescriptionImpl>> getDescriptions() {
+		public DescriptionIndex getDescriptions() {
 			return this.descriptions;
 		}
 
-		private void addRelationships(String axiomId, Long namedConcept, Map<Integer, List<Relationship>> groups, String moduleId, String effectiveTime) {
-			groups.forEach((group, relationships) -> relationships.forEach(relationship -> {
-				String typeId = String.valueOf(relationship.getTypeId());
-				String destinationId = String.valueOf(relationship.getDestinationId());
-
-				// Build a composite identifier for this 'relationship' (which is actually a fragment of an axiom expression) because it doesn't have its own component identifier.
-				String compositeIdentifier = axiomId + "/Group_" + group + "/Type_" + typeId + "/Destination_" + destinationId;
-				newRelationshipState(compositeIdentifier, effectiveTime, "1", moduleId, namedConcept.toString(), destinationId, String.valueOf(group), typeId, ConceptConstants.STATED_RELATIONSHIP,  "900000000000451002");
-				logger.debug("Add axiom relationship {}", compositeIdentifier);
-				
-				this.addStatedConceptAttribute(namedConcept.toString(), typeId, destinationId);
-				if(ConceptConstants.isA.equals(typeId)) {
-					this.addStatedConceptParent(namedConcept.toString(), destinationId);
-					this.addStatedConceptChild(namedConcept.toString(), destinationId);
+		public Set<Long> getUngroupedAttributes() {
+			return this.ungroupedAttributes;
+		}
+
+		/**
+		 * Each fragment of the axiom is kept once, in the axiom relationship store. The component store only gets the stated parents and attributes the index is built from.
+		 * Fragments have no component identifier of their own, a readable one is built by AxiomRelationshipStore.getCompositeIdentifier when needed.
+		 */
+		private void addRelationships(String axiomId, Long namedConcept, Map<Integer, List<Relationship>> groups) {
+			int axiomOrdinal = axiomRelationships.addAxiom(axiomId);
+			String sourceId = namedConcept.toString();
+			groups.forEach((group, relationships) -> {
+				for (Relationship relationship : relationships) {
+					String typeId = toIdString(relationship.getTypeId());
+					String destinationId = toIdString(relationship.getDestinationId());
+					int row = relationship.isConcrete()
+							? axiomRelationships.addConcrete(axiomOrdinal, namedConcept, relationship.getTypeId(), relationship.getValue().getRF2Value(), group)
+							: axiomRelationships.add(axiomOrdinal, namedConcept, relationship.getTypeId(), relationship.getDestinationId(), group);
+					if (logger.isDebugEnabled()) {
+						logger.debug("Add axiom relationship {}", axiomRelationships.getCompositeIdentifier(row));
+					}
+
+					this.addStatedConceptAttribute(sourceId, typeId, destinationId);
+					if (ConceptConstants.isA.equals(typeId)) {
+						this.addStatedConceptParent(sourceId, destinationId);
+						this.addStatedConceptChild(sourceId, destinationId);
+					}
 				}
-			}));
+			});
+		}
+
+		/**
+		 * Type and destination ids repeat heavily across axioms, share one String per id instead of creating one per fragment.
+		 */
+		private String toIdString(long id) {
+			return idStrings.computeIfAbsent(id, Long::toString);
 		}
 
+		public AxiomRelationshipStore getAxiomRelationships() {
+			return axiomRelationships;
+		}
+
+
 		private AtomicInteger getGroupOffset(String conceptId) {
 			this.relationshipRoleGroupIncrementer.computeIfAbsent(conceptId, k -> new AtomicInteger(1)); // Skipping to 1 as 0 reserved for non-grouped
 			return this.relationshipRoleGroupIncrementer.get(conceptId);
@@ -941,6 +1386,54 @@ public class ValidationService {
 		}
 	}
 
+	private record MRCMRow(String id, String referencedComponentId, String[] otherValues) {
+	}
+
+	private record RangeConcepts(Map<String, List<ConceptImpl>> conceptsByRange, Long2ObjectMap<ConceptResult> concepts) {
+
+		List<ConceptImpl> getConcepts(String range) {
+			return range != null ? conceptsByRange.getOrDefault(range, Collections.emptyList()) : Collections.emptyList();
+		}
+	}
+
+	private record RangeCheck(Attribute attributeRange, int check) {
+	}
+
+	private record DomainAttribute(Domain domain, Attribute attribute) {
+	}
+
+	private record RangeUnit(Domain domain, Attribute attributeRange) {
+	}
+
+	/**
+	 * The assertions of a range, and the sets to check in the range engine when it is a range of concepts.
+	 */
+	private record RangeUnitResult(AssertionCollector assertions, ConceptSet domainConcepts, ConceptSet conceptsInRange) {
+	}
+
+	private record CardinalityViolations(Map<Attribute, ConceptSet> attributeCardinality, Map<Attribute, ConceptSet> inGroupCardinality) {
+	}
+
+	private record ConvertedAxiom(String id, String referencedComponentId, AxiomRepresentation axiom, int groupsUsed) {
+	}
+
+	/**
+	 * Passes only description rows on, for when the query index comes from the cache and the components don't need to be built.
+	 */
+	private static class DescriptionComponentFactory extends ImpotentComponentFactory {
+
+		private final OWLExpressionAndDescriptionFactory descriptionFactory;
+
+		DescriptionComponentFactory(OWLExpressionAndDescriptionFactory descriptionFactory) {
+			this.descriptionFactory = descriptionFactory;
+		}
+
+		@Override
+		public void newDescriptionState(String id, String effectiveTime, String active, String moduleId, String conceptId, String languageCode, String typeId, String term, String caseSignificanceId) {
+			descriptionFactory.newDescriptionState(id, effectiveTime, active, moduleId, conceptId, languageCode, typeId, term, caseSignificanceId);
+		}
+	}
+
 	private static class MRCMValidatorReleaseImportManager extends ReleaseImportManager {
 
 		private final ReleaseImporter releaseImporter;
@@ -949,26 +1442,44 @@ public class ValidationService {
 			releaseImporter = new ReleaseImporter();
 		}
 
-		public ReleaseStore loadReleaseFilesToMemoryBasedIndex(Set<String> extractedRF2FilesDirectories, LoadingProfile loadingProfile, OWLExpressionAndDescriptionFactory componentFactory, boolean fullSnapshotRelease) throws ReleaseImportException, IOException {
-			return loadReleaseFiledToStore(extractedRF2FilesDirectories, loadingProfile, new RamReleaseStore(), componentFactory, fullSnapshotRelease);
+		/**
+		 * Loads the components once using the loading profile, then writes the index of each view to its release store using that view's profile.
+		 */
+		public void loadReleaseFilesToIndexes(Set<String> extractedRF2FilesDirectories, LoadingProfile loadingProfile, Map<ContentType, LoadingProfile> indexProfiles,
+				Map<ContentType, ReleaseStore> releaseStores, OWLExpressionAndDescriptionFactory componentFactory, List<ComponentFactory> additionalComponentFactories,
+				boolean fullSnapshotRelease) throws ReleaseImportException, IOException {
+			List<ComponentFactory> componentFactories = new ArrayList<>();
+			componentFactories.add(new HighLevelComponentFactoryAdapterImpl(loadingProfile, componentFactory, componentFactory));
+			componentFactories.addAll(additionalComponentFactories);
+			loadReleaseFiles(extractedRF2FilesDirectories, loadingProfile, new CompositeComponentFactory(componentFactories), fullSnapshotRelease);
+			componentFactory.completeAxiomConversion();
+			final Map<Long, ? extends Concept> conceptMap = componentFactory.getComponentStore().getConcepts();
+			for (Map.Entry<ContentType, LoadingProfile> entry : indexProfiles.entrySet()) {
+				writeToIndex(conceptMap, releaseStores.get(entry.getKey()), entry.getValue());
+			}
 		}
 
-		private ReleaseStore loadReleaseFiledToStore(Set<String> extractedRF2FilesDirectories, LoadingProfile loadingProfile, ReleaseStore releaseStore, OWLExpressionAndDescriptionFactory componentFactory, boolean fullSnapshotRelease) throws ReleaseImportException, IOException {
-			if (fullSnapshotRelease) {
-				releaseImporter.loadSnapshotReleaseFiles(extractedRF2FilesDirectories.iterator().next(), loadingProfile,
-						new HighLevelComponentFactoryAdapterImpl(loadingProfile, componentFactory, componentFactory), false);
+		/**
+		 * Loads the release files from extracted directories, or from the release package ZIP file itself when a single ZIP file is given.
+		 */
+		public void loadReleaseFiles(Set<String> extractedRF2FilesDirectories, LoadingProfile loadingProfile, ComponentFactory componentFactory,
+				boolean fullSnapshotRelease) throws ReleaseImportException {
+			if (extractedRF2FilesDirectories.size() == 1 && ZipReleaseImporter.isZipFile(extractedRF2FilesDirectories.iterator().next())) {
+				File releaseZip = new File(extractedRF2FilesDirectories.iterator().next());
+				if (!fullSnapshotRelease && ZipReleaseImporter.anyDeltaFilesPresent(releaseZip)) {
+					throw new ReleaseImportException("Delta files can not be loaded from a release package ZIP file, please extract it first: " + releaseZip);
+				}
+				new ZipReleaseImporter().loadSnapshotReleaseFiles(releaseZip, loadingProfile, componentFactory);
+			} else if (fullSnapshotRelease) {
+				releaseImporter.loadSnapshotReleaseFiles(extractedRF2FilesDirectories.iterator().next(), loadingProfile, componentFactory, false);
 			} else {
 				boolean loadDelta = RF2ReleaseFilesUtil.anyDeltaFilesPresent(extractedRF2FilesDirectories);
 				if (loadDelta) {
-					releaseImporter.loadEffectiveSnapshotAndDeltaReleaseFiles(extractedRF2FilesDirectories, loadingProfile,
-							new HighLevelComponentFactoryAdapterImpl(loadingProfile, componentFactory, componentFactory), false);
+					releaseImporter.loadEffectiveSnapshotAndDeltaReleaseFiles(extractedRF2FilesDirectories, loadingProfile, componentFactory, false);
 				} else {
-					releaseImporter.loadEffectiveSnapshotReleaseFiles(extractedRF2FilesDirectories, loadingProfile,
-							new HighLevelComponentFactoryAdapterImpl(loadingProfile, componentFactory, componentFactory), false);
+					releaseImporter.loadEffectiveSnapshotReleaseFiles(extractedRF2FilesDirectories, loadingProfile, componentFactory, false);
 				}
 			}
-			final Map<Long, ? extends Concept> conceptMap = componentFactory.getComponentStore().getConcepts();
-			return writeToIndex(conceptMap, releaseStore, loadingProfile);
 		}
 	}
 }
@@ -0,0 +1,215 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.ihtsdo.otf.snomedboot.ReleaseImportException;
+import org.ihtsdo.otf.snomedboot.factory.ComponentFactory;
+import org.ihtsdo.otf.snomedboot.factory.LoadingProfile;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.regex.Pattern;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipFile;
+
+/**
+ * Loads the RF2 snapshot files of a release package straight from its ZIP file, without extracting it.
+ * Entries are selected by name using the loading profile, and their rows are passed to the component factory as they are read.
+ * As with the snomed-boot importer, refset files are only loaded when they match one of the profile's refset filename patterns, if it has any,
+ * and their members only when the profile loads all refsets or lists the refset.
+ * Concepts are loaded first, then the other files in parallel.
+ */
+public class ZipReleaseImporter {
+
+	private static final Logger LOGGER = LoggerFactory.getLogger(ZipReleaseImporter.class);
+
+	private static final Pattern CONCEPT_FILE = Pattern.compile("x?sct2_Concept_[^_]*Snapshot.*\\.txt");
+	private static final Pattern DESCRIPTION_FILE = Pattern.compile("x?sct2_(Description|TextDefinition)_[^_]*Snapshot.*\\.txt");
+	private static final Pattern RELATIONSHIP_FILE = Pattern.compile("x?sct2_Relationship_[^_]*Snapshot.*\\.txt");
+	private static final Pattern STATED_RELATIONSHIP_FILE = Pattern.compile("x?sct2_StatedRelationship_[^_]*Snapshot.*\\.txt");
+	private static final Pattern CONCRETE_RELATIONSHIP_FILE = Pattern.compile("x?sct2_RelationshipConcreteValues_[^_]*Snapshot.*\\.txt");
+	private static final Pattern REFSET_FILE = Pattern.compile("x?(der2|sct2)_[^_]*Refset_.*Snapshot.*\\.txt");
+	private static final Pattern DELTA_CONCEPT_FILE = Pattern.compile("x?(sct|rel)2_Concept_[^_]*Delta_.*\\.txt");
+
+	private static final String ACTIVE = "1";
+
+	public static boolean isZipFile(String path) {
+		return path.toLowerCase(Locale.ROOT).endsWith(".zip") && new File(path).isFile();
+	}
+
+	public static boolean anyDeltaFilesPresent(File releaseZip) throws ReleaseImportException {
+		try (ZipFile zipFile = new ZipFile(releaseZip)) {
+			return zipFile.stream().anyMatch(entry -> DELTA_CONCEPT_FILE.matcher(getFilename(entry)).matches());
+		} catch (IOException e) {
+			throw new ReleaseImportException("Error while reading release package " + releaseZip, e);
+		}
+	}
+
+	public void loadSnapshotReleaseFiles(File releaseZip, LoadingProfile loadingProfile, ComponentFactory componentFactory) throws ReleaseImportException {
+		try (ZipFile zipFile = new ZipFile(releaseZip)) {
+			List<ZipEntry> conceptEntries = new ArrayList<>();
+			List<ZipEntry> otherEntries = new ArrayList<>();
+			for (ZipEntry entry : Collections.list(zipFile.entries())) {
+				if (entry.isDirectory()) {
+					continue;
+				}
+				String filename = getFilename(entry);
+				if (loadingProfile.isJustRefsets()) {
+					if (isRefsetFile(filename, loadingProfile)) {
+						otherEntries.add(entry);
+					}
+				} else if (CONCEPT_FILE.matcher(filename).matches()) {
+					conceptEntries.add(entry);
+				} else if ((loadingProfile.isDescriptions() && DESCRIPTION_FILE.matcher(filename).matches())
+						|| (isInferredRelationships(loadingProfile) && RELATIONSHIP_FILE.matcher(filename).matches())
+						|| (isInferredRelationships(loadingProfile) && CONCRETE_RELATIONSHIP_FILE.matcher(filename).matches())
+						|| (loadingProfile.isStatedRelationships() && STATED_RELATIONSHIP_FILE.matcher(filename).matches())
+						|| isRefsetFile(filename, loadingProfile)) {
+					otherEntries.add(entry);
+				}
+			}
+
+			componentFactory.loadingComponentsStarting();
+			for (ZipEntry entry : conceptEntries) {
+				loadEntry(zipFile, entry, loadingProfile, componentFactory);
+			}
+			loadEntriesInParallel(zipFile, otherEntries, loadingProfile, componentFactory);
+			componentFactory.loadingComponentsCompleted();
+		} catch (IOException e) {
+			throw new ReleaseImportException("Error while reading release package " + releaseZip, e);
+		}
+	}
+
+	private void loadEntriesInParallel(ZipFile zipFile, List<ZipEntry> entries, LoadingProfile loadingProfile, ComponentFactory componentFactory) throws ReleaseImportException {
+		if (entries.isEmpty()) {
+			return;
+		}
+		ExecutorService executorService = Executors.newFixedThreadPool(Math.min(entries.size(), Runtime.getRuntime().availableProcessors()));
+		try {
+			List<Future<Void>> futures = new ArrayList<>();
+			for (ZipEntry entry : entries) {
+				futures.add(executorService.submit(() -> {
+					loadEntry(zipFile, entry, loadingProfile, componentFactory);
+					return null;
+				}));
+			}
+			for (Future<Void> future : futures) {
+				future.get();
+			}
+		} catch (ExecutionException e) {
+			throw new ReleaseImportException("Failed to load release file.", e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new ReleaseImportException("Release loading was interrupted.", e);
+		} finally {
+			executorService.shutdownNow();
+		}
+	}
+
+	private void loadEntry(ZipFile zipFile, ZipEntry entry, LoadingProfile loadingProfile, ComponentFactory componentFactory) throws IOException {
+		String filename = getFilename(entry);
+		LOGGER.info("Loading {}", filename);
+		try (BufferedReader reader = new BufferedReader(new InputStreamReader(zipFile.getInputStream(entry), StandardCharsets.UTF_8))) {
+			String header = reader.readLine();
+			if (header == null) {
+				return;
+			}
+			String line;
+			if (CONCEPT_FILE.matcher(filename).matches()) {
+				boolean inactive = loadingProfile.isInactiveConcepts();
+				while ((line = reader.readLine()) != null) {
+					String[] values = split(line, 5);
+					if (inactive || ACTIVE.equals(values[2])) {
+						componentFactory.newConceptState(values[0], values[1], values[2], values[3], values[4]);
+					}
+				}
+			} else if (DESCRIPTION_FILE.matcher(filename).matches()) {
+				boolean inactive = loadingProfile.isInactiveDescriptions();
+				while ((line = reader.readLine()) != null) {
+					String[] values = split(line, 9);
+					if (inactive || ACTIVE.equals(values[2])) {
+						componentFactory.newDescriptionState(values[0], values[1], values[2], values[3], values[4], values[5], values[6], values[7], values[8]);
+					}
+				}
+			} else if (CONCRETE_RELATIONSHIP_FILE.matcher(filename).matches()) {
+				boolean inactive = loadingProfile.isInactiveRelationships();
+				while ((line = reader.readLine()) != null) {
+					String[] values = split(line, 10);
+					if (inactive || ACTIVE.equals(values[2])) {
+						componentFactory.newConcreteRelationshipState(values[0], values[1], values[2], values[3], values[4], values[5], values[6], values[7], values[8], values[9]);
+					}
+				}
+			} else if (RELATIONSHIP_FILE.matcher(filename).matches() || STATED_RELATIONSHIP_FILE.matcher(filename).matches()) {
+				boolean inactive = loadingProfile.isInactiveRelationships();
+				while ((line = reader.readLine()) != null) {
+					String[] values = split(line, 10);
+					if (inactive || ACTIVE.equals(values[2])) {
+						componentFactory.newRelationshipState(values[0], values[1], values[2], values[3], values[4], values[5], values[6], values[7], values[8], values[9]);
+					}
+				}
+			} else {
+				loadRefsetEntry(reader, header, loadingProfile, componentFactory);
+			}
+		}
+	}
+
+	private void loadRefsetEntry(BufferedReader reader, String header, LoadingProfile loadingProfile, ComponentFactory componentFactory) throws IOException {
+		String[] fieldNames = header.split("\t");
+		Set<String> refsetIds = loadingProfile.getRefsetIds();
+		boolean allRefsets = loadingProfile.isAllRefsets();
+		boolean inactive = loadingProfile.isInactiveRefsetMembers();
+		String line;
+		while ((line = reader.readLine()) != null) {
+			String[] values = split(line, fieldNames.length);
+			if ((allRefsets || refsetIds != null && refsetIds.contains(values[4])) && (inactive || ACTIVE.equals(values[2]))) {
+				componentFactory.newReferenceSetMemberState(fieldNames, values[0], values[1], values[2], values[3], values[4], values[5],
+						Arrays.copyOfRange(values, 6, values.length));
+			}
+		}
+	}
+
+	private static boolean isRefsetFile(String filename, LoadingProfile loadingProfile) {
+		if (!REFSET_FILE.matcher(filename).matches()) {
+			return false;
+		}
+		Set<String> patterns = loadingProfile.getIncludedReferenceSetFilenamePatterns();
+		return patterns == null || patterns.isEmpty() || patterns.stream().anyMatch(filename::matches);
+	}
+
+	/**
+	 * Inferred relationships and their concrete values are only needed when the inferred attributes of concepts are kept.
+	 */
+	private static boolean isInferredRelationships(LoadingProfile loadingProfile) {
+		return loadingProfile.isInferredAttributeMapOnConcept();
+	}
+
+	private static String getFilename(ZipEntry entry) {
+		String name = entry.getName();
+		return name.substring(name.lastIndexOf('/') + 1);
+	}
+
+	/**
+	 * Splits a tab separated row into exactly the expected number of columns, padding missing trailing columns with empty strings.
+	 */
+	private static String[] split(String line, int columns) {
+		String[] values = new String[columns];
+		int start = 0;
+		for (int i = 0; i < columns - 1; i++) {
+			int end = line.indexOf('\t', start);
+			if (end == -1) {
+				values[i] = line.substring(start);
+				Arrays.fill(values, i + 1, columns, "");
+				return values;
+			}
+			values[i] = line.substring(start, end);
+			start = end + 1;
+		}
+		values[columns - 1] = line.substring(start);
+		return values;
+	}
+}
@@ -9,14 +9,14 @@ public class Attribute {
 
 	private final String attributeId;
 
-	private String attributeFsn;
-
 	private final String contentTypeId;
 
 	private String rangeConstraint;
 
 	private String rangeRule;
 
+	private MRCMRule compiledRangeRule;
+
 	private boolean isGrouped;
 
 	private String attributeCardinality;
@@ -48,14 +48,6 @@ public class Attribute {
 		return contentTypeId;
 	}
 
-	public void setAttributeFsn(String attributeFsn) {
-		this.attributeFsn = attributeFsn;
-	}
-
-	public String  getAttributeFsn() {
-		return attributeFsn;
-	}
-
 	public String getRangeConstraint() {
 		return rangeConstraint;
 	}
@@ -70,6 +62,20 @@ public class Attribute {
 
 	public void setRangeRule(String rangeRule) {
 		this.rangeRule = rangeRule;
+		this.compiledRangeRule = null;
+	}
+
+	/**
+	 * Returns the range rule parsed on first use, or null if there is none.
+	 * @throws IllegalArgumentException if the range rule can not be parsed
+	 */
+	public MRCMRule getCompiledRangeRule() {
+		MRCMRule rule = compiledRangeRule;
+		if (rule == null && rangeRule != null) {
+			rule = MRCMRule.parse(rangeRule);
+			compiledRangeRule = rule;
+		}
+		return rule;
 	}
 
 	public boolean isGrouped() {
@@ -0,0 +1,51 @@
+package org.snomed.quality.validator.mrcm.model;
+
+/**
+ * The concept of an MRCM attribute as found in the release being validated.
+ * Resolved once per validation run and shared by the assertions of the attribute.
+ */
+public final class AttributeDescriptor {
+
+	private final String attributeId;
+
+	private final String fsn;
+
+	private final boolean active;
+
+	public AttributeDescriptor(String attributeId, String fsn, boolean active) {
+		this.attributeId = attributeId;
+		this.fsn = fsn;
+		this.active = active;
+	}
+
+	/**
+	 * Describes an attribute whose concept is not in the release.
+	 */
+	public static AttributeDescriptor notFound(String attributeId) {
+		return new AttributeDescriptor(attributeId, null, false);
+	}
+
+	public String getAttributeId() {
+		return attributeId;
+	}
+
+	public String getFsn() {
+		return fsn;
+	}
+
+	public boolean isActive() {
+		return active;
+	}
+
+	/**
+	 * Returns the attribute as used in assertion messages, e.g. {@code 363698007 |Finding site (attribute)|}.
+	 */
+	public String getLabel() {
+		return fsn == null ? attributeId : attributeId + " |" + fsn + "|";
+	}
+
+	@Override
+	public String toString() {
+		return "AttributeDescriptor [attributeId=" + attributeId + ", fsn=" + fsn + ", active=" + active + ']';
+	}
+}
@@ -0,0 +1,372 @@
+package org.snomed.quality.validator.mrcm.model;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * An MRCM rule parsed into a tree, so it can be transformed without rewriting the ECL text.
+ * Covers the part of ECL the MRCM rules use: a focus constraint, kept as written, refined by attributes,
+ * attribute groups and brackets joined with AND, OR or commas. Cardinalities are parsed but left out when the rule is written as ECL.
+ */
+public final class MRCMRule {
+
+	private static final Map<String, String> NEGATED_OPERATORS = Map.of(
+			"=", "!=", "!=", "=",
+			"<", ">=", ">=", "<",
+			">", "<=", "<=", ">");
+
+	private static final String WILDCARD = "*";
+
+	private final String focus;
+	private final Refinement refinement;
+
+	private MRCMRule(String focus, Refinement refinement) {
+		this.focus = focus;
+		this.refinement = refinement;
+	}
+
+	/**
+	 * @throws IllegalArgumentException if the rule is not in the supported part of ECL
+	 */
+	public static MRCMRule parse(String rule) {
+		return new Parser(rule).parseRule();
+	}
+
+	public String getFocus() {
+		return focus;
+	}
+
+	public Refinement getRefinement() {
+		return refinement;
+	}
+
+	/**
+	 * The rule selecting the concepts with a value of the attribute outside of its range.
+	 * Only the comparisons of the attribute are inverted, and the AND and OR joining them swapped where all operands compare the attribute.
+	 * Comparisons of other attributes, such as {@code 766939001 |Plays role| = *}, and the conjunctions joining them are kept as written.
+	 * @throws IllegalArgumentException if the rule doesn't compare the attribute
+	 */
+	public MRCMRule outOfRange(String attributeId) {
+		if (refinement == null || !refinement.compares(attributeId)) {
+			throw new IllegalArgumentException("Rule '" + toEcl() + "' has no comparison of attribute " + attributeId + ".");
+		}
+		return new MRCMRule(focus, refinement.outOfRange(attributeId));
+	}
+
+	/**
+	 * Writes the rule as ECL without its cardinalities.
+	 */
+	public String toEcl() {
+		return refinement == null ? focus : focus + " : " + refinement.toEcl();
+	}
+
+	@Override
+	public String toString() {
+		return toEcl();
+	}
+
+	private static boolean isOperatorChar(char c) {
+		return "<>=!^".indexOf(c) >= 0;
+	}
+
+	private static boolean isOperator(String token) {
+		return !token.isEmpty() && isOperatorChar(token.charAt(0));
+	}
+
+	public sealed interface Refinement permits Comparison, Group, Compound {
+
+		/**
+		 * Returns true if the refinement compares the attribute anywhere.
+		 */
+		boolean compares(String attributeId);
+
+		/**
+		 * Returns true if every comparison of the refinement is of the attribute.
+		 */
+		boolean comparesOnly(String attributeId);
+
+		Refinement outOfRange(String attributeId);
+
+		String toEcl();
+	}
+
+	/**
+	 * An attribute compared to a concept expression or a concrete value, e.g. {@code 3311482005 |Has strength| >= #10}.
+	 */
+	public record Comparison(String cardinality, String attribute, String operator, String value, boolean concreteValue) implements Refinement {
+
+		/**
+		 * Returns the concept id of the attribute, without constraint operator or term.
+		 */
+		public String attributeId() {
+			String[] parts = attribute.split(" ");
+			return isOperator(parts[0]) ? parts[1] : parts[0];
+		}
+
+		@Override
+		public boolean compares(String attributeId) {
+			return attributeId().equals(attributeId);
+		}
+
+		@Override
+		public boolean comparesOnly(String attributeId) {
+			return compares(attributeId);
+		}
+
+		@Override
+		public Comparison outOfRange(String attributeId) {
+			if (!compares(attributeId) || !concreteValue && WILDCARD.equals(value)) {
+				return this;
+			}
+			return new Comparison(cardinality, attribute, NEGATED_OPERATORS.get(operator), value, concreteValue);
+		}
+
+		@Override
+		public String toEcl() {
+			return attribute + " " + operator + " " + value;
+		}
+	}
+
+	public record Group(String cardinality, Refinement refinement) implements Refinement {
+
+		@Override
+		public boolean compares(String attributeId) {
+			return refinement.compares(attributeId);
+		}
+
+		@Override
+		public boolean comparesOnly(String attributeId) {
+			return refinement.comparesOnly(attributeId);
+		}
+
+		@Override
+		public Group outOfRange(String attributeId) {
+			return new Group(cardinality, refinement.outOfRange(attributeId));
+		}
+
+		@Override
+		public String toEcl() {
+			return "{ " + refinement.toEcl() + " }";
+		}
+	}
+
+	/**
+	 * Refinements joined with AND (or a comma) or with OR. A bracketed single refinement has one operand.
+	 */
+	public record Compound(boolean disjunction, List<Refinement> operands, boolean bracketed) implements Refinement {
+
+		@Override
+		public boolean compares(String attributeId) {
+			return operands.stream().anyMatch(operand -> operand.compares(attributeId));
+		}
+
+		@Override
+		public boolean comparesOnly(String attributeId) {
+			return operands.stream().allMatch(operand -> operand.comparesOnly(attributeId));
+		}
+
+		@Override
+		public Compound outOfRange(String attributeId) {
+			// De Morgan only applies where all operands are negated
+			boolean negated = comparesOnly(attributeId);
+			return new Compound(negated != disjunction, operands.stream().map(operand -> operand.outOfRange(attributeId)).toList(), bracketed);
+		}
+
+		@Override
+		public String toEcl() {
+			String ecl = operands.stream().map(Refinement::toEcl).collect(Collectors.joining(disjunction ? " OR " : " AND "));
+			return bracketed ? "( " + ecl + " )" : ecl;
+		}
+	}
+
+	/**
+	 * Recursive descent over the tokens of the refinement, the focus is taken as written up to the first colon outside brackets and terms.
+	 */
+	private static final class Parser {
+
+		private final String rule;
+		private final List<String> tokens = new ArrayList<>();
+		private int position;
+
+		private Parser(String rule) {
+			this.rule = rule;
+		}
+
+		private MRCMRule parseRule() {
+			if (rule == null || rule.isBlank()) {
+				throw new IllegalArgumentException("Rule is empty.");
+			}
+			int colon = findRefinementStart();
+			if (colon < 0) {
+				return new MRCMRule(rule.trim(), null);
+			}
+			tokenize(rule.substring(colon + 1));
+			Refinement refinement = parseRefinement();
+			if (position != tokens.size()) {
+				throw error("Unexpected '" + tokens.get(position) + "'");
+			}
+			return new MRCMRule(rule.substring(0, colon).trim(), refinement);
+		}
+
+		private int findRefinementStart() {
+			int depth = 0;
+			boolean inTerm = false;
+			for (int i = 0; i < rule.length(); i++) {
+				char c = rule.charAt(i);
+				if (c == '|') {
+					inTerm = !inTerm;
+				} else if (!inTerm && c == '(') {
+					depth++;
+				} else if (!inTerm && c == ')') {
+					depth--;
+				} else if (!inTerm && depth == 0 && c == ':') {
+					return i;
+				}
+			}
+			return -1;
+		}
+
+		private void tokenize(String text) {
+			int i = 0;
+			while (i < text.length()) {
+				char c = text.charAt(i);
+				if (Character.isWhitespace(c)) {
+					i++;
+				} else if (c == '|' || c == '[' || c == '"') {
+					char end = c == '[' ? ']' : c;
+					int close = text.indexOf(end, i + 1);
+					if (close < 0) {
+						throw error("Unclosed " + c);
+					}
+					tokens.add(text.substring(i, close + 1));
+					i = close + 1;
+				} else if ("{}(),".indexOf(c) >= 0) {
+					tokens.add(String.valueOf(c));
+					i++;
+				} else {
+					int start = i;
+					boolean operator = isOperatorChar(c);
+					while (i < text.length() && !Character.isWhitespace(text.charAt(i)) && "{}(),|[\"".indexOf(text.charAt(i)) < 0
+							&& isOperatorChar(text.charAt(i)) == operator) {
+						i++;
+					}
+					tokens.add(text.substring(start, i));
+				}
+			}
+		}
+
+		private Refinement parseRefinement() {
+			List<Refinement> operands = new ArrayList<>();
+			operands.add(parseSubRefinement());
+			Boolean disjunction = null;
+			while (position < tokens.size()) {
+				String token = tokens.get(position);
+				boolean or = "OR".equalsIgnoreCase(token);
+				if (!or && !"AND".equalsIgnoreCase(token) && !",".equals(token)) {
+					break;
+				}
+				if (disjunction != null && disjunction != or) {
+					throw error("AND and OR must not be mixed without brackets");
+				}
+				disjunction = or;
+				position++;
+				operands.add(parseSubRefinement());
+			}
+			return operands.size() == 1 ? operands.get(0) : new Compound(disjunction, operands, false);
+		}
+
+		private Refinement parseSubRefinement() {
+			String cardinality = peek().startsWith("[") ? next() : null;
+			if ("{".equals(peek())) {
+				next();
+				Refinement refinement = parseRefinement();
+				expect("}");
+				return new Group(cardinality, refinement);
+			}
+			if ("(".equals(peek())) {
+				next();
+				Refinement refinement = parseRefinement();
+				expect(")");
+				List<Refinement> operands = refinement instanceof Compound compound && !compound.bracketed() ? compound.operands() : List.of(refinement);
+				boolean disjunction = refinement instanceof Compound compound && !compound.bracketed() && compound.disjunction();
+				return new Compound(disjunction, operands, true);
+			}
+			String attribute = parseConceptReference();
+			String operator = next();
+			if (!NEGATED_OPERATORS.containsKey(operator)) {
+				throw error("Expected a comparison operator but found '" + operator + "'");
+			}
+			String value = peek();
+			if (value.startsWith("#") || value.startsWith("\"")) {
+				next();
+				return new Comparison(cardinality, attribute, operator, value, true);
+			}
+			return new Comparison(cardinality, attribute, operator, parseExpressionValue(), false);
+		}
+
+		/**
+		 * A concept, optionally with a constraint operator and term, or the wildcard.
+		 */
+		private String parseConceptReference() {
+			StringBuilder reference = new StringBuilder();
+			if (isOperatorChar(peek().charAt(0))) {
+				reference.append(next()).append(" ");
+			}
+			String concept = next();
+			if (!WILDCARD.equals(concept) && !Character.isDigit(concept.charAt(0))) {
+				throw error("Expected a concept but found '" + concept + "'");
+			}
+			reference.append(concept);
+			if (position < tokens.size() && peek().startsWith("|")) {
+				reference.append(" ").append(next());
+			}
+			return reference.toString();
+		}
+
+		/**
+		 * A concept reference, or a bracketed expression which is kept as written.
+		 */
+		private String parseExpressionValue() {
+			if (!"(".equals(peek())) {
+				return parseConceptReference();
+			}
+			List<String> expression = new ArrayList<>();
+			int depth = 0;
+			do {
+				String token = next();
+				if ("(".equals(token)) {
+					depth++;
+				} else if (")".equals(token)) {
+					depth--;
+				}
+				expression.add(token);
+			} while (depth > 0);
+			return String.join(" ", expression);
+		}
+
+		private String peek() {
+			if (position >= tokens.size()) {
+				throw error("Unexpected end");
+			}
+			return tokens.get(position);
+		}
+
+		private String next() {
+			String token = peek();
+			position++;
+			return token;
+		}
+
+		private void expect(String token) {
+			if (!token.equals(next())) {
+				throw error("Expected '" + token + "'");
+			}
+		}
+
+		private IllegalArgumentException error(String message) {
+			return new IllegalArgumentException(message + " in MRCM rule '" + rule + "'");
+		}
+	}
+}
@@ -0,0 +1,40 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class AttributeRangeEngineTest {
+
+	private static final long FINDING_SITE = 363698007L;
+	private static final long LATERALITY = 272741003L;
+	private static final long HEART = 80891009L;
+	private static final long LEFT = 7771000L;
+	private static final long DISORDER_OF_HEART = 56265001L;
+	private static final long LEFT_SIDED_DISORDER = 1001L;
+	private static final long CONCRETE_SITE = 1002L;
+	private static final long PROCEDURE = 1003L;
+
+	@Test
+	public void testRangeChecks() {
+		ConceptDictionary dictionary = ConceptDictionary.of(FINDING_SITE, LATERALITY, HEART, LEFT, DISORDER_OF_HEART, LEFT_SIDED_DISORDER, CONCRETE_SITE, PROCEDURE);
+		RelationshipTable.Builder builder = new RelationshipTable.Builder(ContentType.INFERRED);
+		builder.add(DISORDER_OF_HEART, 1, FINDING_SITE, HEART);
+		builder.add(LEFT_SIDED_DISORDER, 1, FINDING_SITE, HEART);
+		builder.add(LEFT_SIDED_DISORDER, 2, FINDING_SITE, LEFT);
+		builder.add(CONCRETE_SITE, 1, FINDING_SITE, "#1");
+		builder.add(PROCEDURE, 0, FINDING_SITE, LEFT);
+		builder.add(LEFT_SIDED_DISORDER, 0, LATERALITY, LEFT);
+
+		AttributeRangeEngine engine = new AttributeRangeEngine(builder.build(dictionary));
+		ConceptSet disorders = ConceptSet.of(dictionary, List.of(DISORDER_OF_HEART, LEFT_SIDED_DISORDER, CONCRETE_SITE));
+		int findingSiteCheck = engine.addRangeCheck(disorders, FINDING_SITE, ConceptSet.of(dictionary, List.of(HEART)));
+		int lateralityCheck = engine.addRangeCheck(disorders, LATERALITY, ConceptSet.of(dictionary, List.of(LEFT)));
+		List<ConceptSet> results = engine.run();
+		// One value out of range is enough, concrete values are never in range, concepts outside the domain are not checked
+		assertEquals(List.of(LEFT_SIDED_DISORDER, CONCRETE_SITE), results.get(findingSiteCheck).toConceptIds());
+		assertEquals(List.of(), results.get(lateralityCheck).toConceptIds());
+	}
+}
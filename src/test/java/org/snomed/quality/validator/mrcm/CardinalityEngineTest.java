@@ -0,0 +1,140 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+public class CardinalityEngineTest {
+
+	private static final long FINDING_SITE = 363698007L;
+	private static final long LATERALITY = 272741003L;
+	private static final long STRENGTH_VALUE = 3311482005L;
+	private static final long LEFT = 7771000L;
+	private static final long RIGHT = 24028007L;
+	private static final long HEART = 80891009L;
+	private static final long LUNG = 39607008L;
+
+	private static final long SINGLE_FINDING_SITE = 1001L;
+	private static final long GROUP_WITH_TWO_SITES = 1002L;
+	private static final long UNGROUPED_TWO_SITES = 1003L;
+	private static final long TWO_LATERALITIES = 1004L;
+	private static final long REPEATED_SITE = 1005L;
+	private static final long GROUP_WITH_CONCRETE_VALUES = 1006L;
+
+	private ConceptDictionary dictionary;
+	private RelationshipTable.Builder builder;
+
+	@Before
+	public void setUp() {
+		dictionary = ConceptDictionary.of(SINGLE_FINDING_SITE, GROUP_WITH_TWO_SITES, UNGROUPED_TWO_SITES, TWO_LATERALITIES, REPEATED_SITE,
+				GROUP_WITH_CONCRETE_VALUES, FINDING_SITE, LATERALITY, STRENGTH_VALUE, LEFT, RIGHT, HEART, LUNG);
+		builder = new RelationshipTable.Builder(ContentType.INFERRED);
+		builder.add(SINGLE_FINDING_SITE, 1, FINDING_SITE, HEART);
+		builder.add(GROUP_WITH_TWO_SITES, 1, FINDING_SITE, HEART);
+		builder.add(GROUP_WITH_TWO_SITES, 1, FINDING_SITE, LUNG);
+		builder.add(UNGROUPED_TWO_SITES, 0, FINDING_SITE, HEART);
+		builder.add(UNGROUPED_TWO_SITES, 0, FINDING_SITE, LUNG);
+		builder.add(TWO_LATERALITIES, 0, LATERALITY, LEFT);
+		builder.add(TWO_LATERALITIES, 0, LATERALITY, RIGHT);
+		builder.add(REPEATED_SITE, 1, FINDING_SITE, HEART);
+		builder.add(REPEATED_SITE, 2, FINDING_SITE, HEART);
+		builder.add(GROUP_WITH_CONCRETE_VALUES, 1, STRENGTH_VALUE, "#500");
+		builder.add(GROUP_WITH_CONCRETE_VALUES, 1, STRENGTH_VALUE, "#10");
+	}
+
+	@Test
+	public void testAttributeCardinality() {
+		ConceptSet all = allConcepts();
+		CardinalityEngine engine = new CardinalityEngine(builder.build(dictionary));
+		int lateralityCheck = engine.addAttributeCardinalityCheck(all, LATERALITY, "0..1");
+		int findingSiteCheck = engine.addAttributeCardinalityCheck(all, FINDING_SITE, "0..1");
+		List<ConceptSet> results = engine.run();
+		assertEquals(List.of(TWO_LATERALITIES), results.get(lateralityCheck).toConceptIds());
+		// The same value in two groups counts once
+		assertEquals(List.of(GROUP_WITH_TWO_SITES, UNGROUPED_TWO_SITES), results.get(findingSiteCheck).toConceptIds());
+	}
+
+	@Test
+	public void testAttributeInGroupCardinality() {
+		ConceptSet all = allConcepts();
+		CardinalityEngine engine = new CardinalityEngine(builder.build(dictionary));
+		int findingSiteCheck = engine.addAttributeInGroupCardinalityCheck(all, FINDING_SITE, "0..*", "0..1");
+		int strengthCheck = engine.addAttributeInGroupCardinalityCheck(all, STRENGTH_VALUE, "0..*", "0..1");
+		int singleGroupCheck = engine.addAttributeInGroupCardinalityCheck(all, FINDING_SITE, "0..1", "0..*");
+		List<ConceptSet> results = engine.run();
+		// Ungrouped relationships are groups of their own
+		assertEquals(List.of(GROUP_WITH_TWO_SITES), results.get(findingSiteCheck).toConceptIds());
+		assertEquals(List.of(GROUP_WITH_CONCRETE_VALUES), results.get(strengthCheck).toConceptIds());
+		assertEquals(List.of(UNGROUPED_TWO_SITES, REPEATED_SITE), results.get(singleGroupCheck).toConceptIds());
+	}
+
+	@Test
+	public void testOnlyDomainConceptsChecked() {
+		CardinalityEngine engine = new CardinalityEngine(builder.build(dictionary));
+		int check = engine.addAttributeCardinalityCheck(ConceptSet.of(dictionary, List.of(SINGLE_FINDING_SITE, UNGROUPED_TWO_SITES)), FINDING_SITE, "0..1");
+		assertEquals(List.of(UNGROUPED_TWO_SITES), engine.run().get(check).toConceptIds());
+	}
+
+	@Test
+	public void testWriteAndRead() throws IOException {
+		File directory = Files.createTempDirectory("relationship-table").toFile();
+		File file = new File(directory, "inferred.relationships");
+		try {
+			builder.write(file);
+			RelationshipTable.Builder copy = new RelationshipTable.Builder(ContentType.INFERRED);
+			copy.read(file);
+			RelationshipTable table = copy.build(dictionary);
+			assertEquals(11, table.size());
+			int ordinal = dictionary.getOrdinal(GROUP_WITH_CONCRETE_VALUES);
+			long value = table.getValue(table.getRowsStart(ordinal));
+			assertTrue(RelationshipTable.isConcreteValue(value));
+			assertEquals("#500", table.getConcreteValue(value));
+		} finally {
+			file.delete();
+			directory.delete();
+		}
+	}
+
+	@Test
+	public void testStatedConcreteAxiomRelationshipsReadBack() throws IOException {
+		AxiomRelationshipStore axiomRelationships = new AxiomRelationshipStore();
+		int axiom = axiomRelationships.addAxiom("a6c3d4b2-0c55-4c7a-a2c7-3e4c2a0b9f10");
+		axiomRelationships.add(axiom, GROUP_WITH_CONCRETE_VALUES, 116680003L, SINGLE_FINDING_SITE, 0);
+		axiomRelationships.add(axiom, GROUP_WITH_CONCRETE_VALUES, FINDING_SITE, HEART, 1);
+		axiomRelationships.addConcrete(axiom, GROUP_WITH_CONCRETE_VALUES, STRENGTH_VALUE, "#250", 1);
+		RelationshipTable.Builder stated = new RelationshipTable.Builder(ContentType.STATED);
+		stated.addAxiomRelationships(axiomRelationships);
+
+		File directory = Files.createTempDirectory("relationship-table").toFile();
+		File file = new File(directory, "stated.relationships");
+		try {
+			stated.write(file);
+			RelationshipTable.Builder copy = new RelationshipTable.Builder(ContentType.STATED);
+			copy.read(file);
+			RelationshipTable table = copy.build(dictionary);
+			// The is-a fragment is left out
+			assertEquals(2, table.size());
+			int ordinal = dictionary.getOrdinal(GROUP_WITH_CONCRETE_VALUES);
+			assertEquals(HEART, table.getValue(table.getRowsStart(ordinal)));
+			long value = table.getValue(table.getRowsStart(ordinal) + 1);
+			assertTrue(RelationshipTable.isConcreteValue(value));
+			assertEquals("#250", table.getConcreteValue(value));
+			assertEquals(1, table.getGroup(table.getRowsStart(ordinal) + 1));
+		} finally {
+			file.delete();
+			directory.delete();
+		}
+	}
+
+	private ConceptSet allConcepts() {
+		return ConceptSet.of(dictionary, List.of(SINGLE_FINDING_SITE, GROUP_WITH_TWO_SITES, UNGROUPED_TWO_SITES, TWO_LATERALITIES, REPEATED_SITE,
+				GROUP_WITH_CONCRETE_VALUES));
+	}
+}
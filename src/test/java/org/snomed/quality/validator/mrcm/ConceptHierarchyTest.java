@@ -0,0 +1,79 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.ihtsdo.otf.snomedboot.domain.ConceptConstants;
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+
+public class ConceptHierarchyTest {
+
+	private static final long BODY_STRUCTURE = 123037004L;
+	private static final long LIMB_STRUCTURE = 243996003L;
+	private static final long ARM_STRUCTURE = 53120007L;
+	private static final long HAND_STRUCTURE = 85562004L;
+	private static final long ORGAN_STRUCTURE = 272625005L;
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private ConceptDictionary dictionary;
+	private ConceptHierarchy hierarchy;
+
+	@Before
+	public void setUp() {
+		dictionary = ConceptDictionary.of(BODY_STRUCTURE, LIMB_STRUCTURE, ARM_STRUCTURE, HAND_STRUCTURE, ORGAN_STRUCTURE);
+		ConceptHierarchy.Builder builder = new ConceptHierarchy.Builder(dictionary);
+		builder.addParent(LIMB_STRUCTURE, BODY_STRUCTURE);
+		builder.addParent(ORGAN_STRUCTURE, BODY_STRUCTURE);
+		builder.addParent(ARM_STRUCTURE, LIMB_STRUCTURE);
+		builder.addParent(HAND_STRUCTURE, ARM_STRUCTURE);
+		builder.addParent(HAND_STRUCTURE, ORGAN_STRUCTURE);
+		hierarchy = builder.build();
+	}
+
+	@Test
+	public void testDescendantsOrSelf() {
+		ConceptSet limbs = ConceptSet.of(dictionary, List.of(LIMB_STRUCTURE));
+		assertEquals(List.of(ARM_STRUCTURE, HAND_STRUCTURE, LIMB_STRUCTURE), hierarchy.descendantsOrSelf(limbs).toConceptIds());
+		assertEquals(5, hierarchy.descendantsOrSelf(ConceptSet.of(dictionary, List.of(BODY_STRUCTURE))).size());
+	}
+
+	@Test
+	public void testChildrenOrSelf() {
+		ConceptSet limbs = ConceptSet.of(dictionary, List.of(LIMB_STRUCTURE, ORGAN_STRUCTURE));
+		assertEquals(List.of(ARM_STRUCTURE, HAND_STRUCTURE, LIMB_STRUCTURE, ORGAN_STRUCTURE), hierarchy.childrenOrSelf(limbs).toConceptIds());
+		assertEquals(List.of(ARM_STRUCTURE, LIMB_STRUCTURE), hierarchy.childrenOrSelf(ConceptSet.of(dictionary, List.of(LIMB_STRUCTURE))).toConceptIds());
+	}
+
+	@Test
+	public void testReleaseBuilderKeepsActiveIsARelationshipsOfItsView() throws IOException {
+		ConceptHierarchy.ReleaseBuilder builder = new ConceptHierarchy.ReleaseBuilder(ContentType.INFERRED);
+		addRelationship(builder, "1", LIMB_STRUCTURE, BODY_STRUCTURE, ConceptConstants.isA, ConceptConstants.INFERRED_RELATIONSHIP);
+		addRelationship(builder, "1", ARM_STRUCTURE, LIMB_STRUCTURE, ConceptConstants.isA, ConceptConstants.INFERRED_RELATIONSHIP);
+		addRelationship(builder, "0", ORGAN_STRUCTURE, LIMB_STRUCTURE, ConceptConstants.isA, ConceptConstants.INFERRED_RELATIONSHIP);
+		addRelationship(builder, "1", HAND_STRUCTURE, ARM_STRUCTURE, ConceptConstants.isA, ConceptConstants.STATED_RELATIONSHIP);
+		addRelationship(builder, "1", HAND_STRUCTURE, LIMB_STRUCTURE, "272741003", ConceptConstants.INFERRED_RELATIONSHIP);
+
+		File file = temporaryFolder.newFile("inferred.hierarchy");
+		builder.write(file);
+		ConceptHierarchy.ReleaseBuilder cached = new ConceptHierarchy.ReleaseBuilder(ContentType.INFERRED);
+		cached.read(file);
+
+		ConceptHierarchy releaseHierarchy = cached.build(dictionary);
+		assertEquals(List.of(ARM_STRUCTURE, BODY_STRUCTURE, LIMB_STRUCTURE),
+				releaseHierarchy.descendantsOrSelf(ConceptSet.of(dictionary, List.of(BODY_STRUCTURE))).toConceptIds());
+		assertEquals(List.of(ORGAN_STRUCTURE), releaseHierarchy.descendantsOrSelf(ConceptSet.of(dictionary, List.of(ORGAN_STRUCTURE))).toConceptIds());
+	}
+
+	private static void addRelationship(ConceptHierarchy.ReleaseBuilder builder, String active, long sourceId, long destinationId, String typeId, String characteristicTypeId) {
+		builder.newRelationshipState("1", "20240101", active, "900000000000207008", String.valueOf(sourceId), String.valueOf(destinationId), "0", typeId,
+				characteristicTypeId, "900000000000451002");
+	}
+}
@@ -0,0 +1,47 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+public class ConceptSetTest {
+
+	private final ConceptDictionary dictionary = ConceptDictionary.of(404684003L, 71388002L, 123037004L, 71388002L, 272741003L);
+
+	@Test
+	public void testDictionaryOrdinalsFollowConceptIds() {
+		assertEquals(4, dictionary.size());
+		assertEquals(0, dictionary.getOrdinal(71388002L));
+		assertEquals(3, dictionary.getOrdinal(404684003L));
+		assertEquals(272741003L, dictionary.getConceptId(2));
+		assertEquals(ConceptDictionary.NOT_FOUND, dictionary.getOrdinal(138875005L));
+	}
+
+	@Test
+	public void testSetOperations() {
+		ConceptSet domain = ConceptSet.of(dictionary, List.of(404684003L, 71388002L, 123037004L));
+		ConceptSet valid = ConceptSet.of(dictionary, List.of(71388002L, 272741003L));
+
+		assertEquals(List.of(123037004L, 404684003L), domain.andNot(valid).toConceptIds());
+		assertEquals(List.of(71388002L), domain.and(valid).toConceptIds());
+		assertEquals(4, domain.or(valid).size());
+		assertTrue(domain.contains(123037004L));
+		assertFalse(domain.contains(272741003L));
+		assertFalse(domain.contains(138875005L));
+		assertTrue(ConceptSet.empty(dictionary).isEmpty());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownConceptRejected() {
+		ConceptSet.of(dictionary, List.of(138875005L));
+	}
+
+	@Test
+	public void testUnknownConceptsLeftOut() {
+		ConceptSet members = ConceptSet.ofKnownConcepts(dictionary, 138875005L, 272741003L);
+		assertEquals(List.of(272741003L), members.toConceptIds());
+		assertFalse(members.contains(138875005L));
+	}
+}
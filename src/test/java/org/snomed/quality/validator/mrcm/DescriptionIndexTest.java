@@ -0,0 +1,37 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.junit.Test;
+
+import static org.junit.Assert.*;
+
+public class DescriptionIndexTest {
+
+	@Test
+	public void testActiveTermMatch() {
+		DescriptionIndex index = new DescriptionIndex();
+		index.add(404684003L, 902000019L, true, "Clinical finding (finding)");
+		index.add(404684003L, 1204000015L, false, "Clinical finding (old term)");
+
+		assertTrue(index.hasActiveTerm(404684003L, "Clinical finding (finding)"));
+		assertFalse(index.hasActiveTerm(404684003L, "Clinical finding (old term)"));
+		assertFalse(index.hasActiveTerm(404684003L, "Unknown term"));
+		assertFalse(index.hasActiveTerm(138875005L, "Clinical finding (finding)"));
+		assertFalse(index.hasActiveTerm(404684003L, null));
+		assertEquals(1, index.getConceptCount());
+		assertEquals(2, index.getDescriptionCount());
+	}
+
+	@Test
+	public void testGrowsBeyondInitialCapacity() {
+		DescriptionIndex index = new DescriptionIndex(1);
+		for (long conceptId = 1; conceptId <= 10_000; conceptId++) {
+			index.add(conceptId * 1000 + 5, conceptId * 1000 + 11, true, "Term " + conceptId);
+		}
+		assertEquals(10_000, index.getConceptCount());
+		for (long conceptId = 1; conceptId <= 10_000; conceptId++) {
+			assertTrue(index.containsConcept(conceptId * 1000 + 5));
+			assertTrue(index.hasActiveTerm(conceptId * 1000 + 5, "Term " + conceptId));
+			assertFalse(index.hasActiveTerm(conceptId * 1000 + 5, "Term " + (conceptId + 1)));
+		}
+	}
+}
@@ -0,0 +1,106 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.ihtsdo.otf.sqs.service.exception.ServiceException;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+
+public class EclQueryCacheTest {
+
+	private final ConceptDictionary dictionary = ConceptDictionary.of(404684003L, 71388002L, 123037004L, 272741003L);
+
+	private final Map<String, List<Long>> matches = Map.of(
+			"<<404684003", List.of(404684003L),
+			"<<71388002", List.of(71388002L),
+			"<<123037004", List.of(123037004L),
+			// 138875005 is only referred to by relationships, it has no concept row
+			"<<138875005", List.of(138875005L, 404684003L));
+
+	private final Map<String, AtomicInteger> queries = new ConcurrentHashMap<>();
+
+	@Test
+	public void testRepeatedQueryIsEvaluatedOnce() throws ServiceException {
+		EclQueryCache cache = newCache(EclQueryCache.DEFAULT_MAX_CACHED_BYTES);
+		assertEquals(List.of(404684003L), cache.conceptIds("<<404684003"));
+		assertEquals(List.of(404684003L), cache.conceptIds(" << 404684003 "));
+		assertEquals(List.of(404684003L), cache.conceptSet("<<404684003").toConceptIds());
+		assertEquals(1, getQueryCount("<<404684003"));
+		assertEquals(2, cache.getHits());
+		assertEquals(1, cache.getMisses());
+	}
+
+	@Test
+	public void testDifferentQueriesAreEvaluatedEach() throws ServiceException {
+		EclQueryCache cache = newCache(EclQueryCache.DEFAULT_MAX_CACHED_BYTES);
+		assertEquals(List.of(404684003L), cache.conceptIds("<<404684003"));
+		assertEquals(List.of(71388002L), cache.conceptIds("<<71388002"));
+		assertEquals(1, getQueryCount("<<404684003"));
+		assertEquals(1, getQueryCount("<<71388002"));
+		assertEquals(0, cache.getHits());
+		assertEquals(2, cache.getMisses());
+	}
+
+	@Test
+	public void testLeastRecentlyUsedResultEvictedAtCapacity() throws ServiceException {
+		// Room for two results of one concept each
+		EclQueryCache cache = newCache(2 * ConceptSet.of(dictionary, List.of(404684003L)).getSizeInBytes());
+		cache.conceptSet("<<404684003");
+		cache.conceptSet("<<71388002");
+		cache.conceptSet("<<404684003");
+		cache.conceptSet("<<123037004");
+
+		cache.conceptSet("<<404684003");
+		assertEquals(1, getQueryCount("<<404684003"));
+		cache.conceptSet("<<71388002");
+		assertEquals(2, getQueryCount("<<71388002"));
+	}
+
+	@Test
+	public void testResultLargerThanCacheIsNotKept() throws ServiceException {
+		EclQueryCache cache = newCache(0);
+		cache.conceptSet("<<404684003");
+		cache.conceptSet("<<404684003");
+		assertEquals(2, getQueryCount("<<404684003"));
+	}
+
+	@Test
+	public void testConceptsWithoutConceptRowAreLeftOut() throws ServiceException {
+		EclQueryCache cache = newCache(EclQueryCache.DEFAULT_MAX_CACHED_BYTES);
+		assertEquals(List.of(404684003L), cache.conceptIds("<<138875005"));
+		assertFalse(cache.conceptSet("<<138875005").contains(138875005L));
+	}
+
+	private EclQueryCache newCache(long maxCachedBytes) {
+		return new EclQueryCache(ecl -> {
+			queries.computeIfAbsent(ecl, key -> new AtomicInteger()).incrementAndGet();
+			return matches.get(EclQueryCache.normalise(ecl));
+		}, dictionary, maxCachedBytes);
+	}
+
+	private int getQueryCount(String ecl) {
+		return queries.entrySet().stream().filter(entry -> EclQueryCache.normalise(entry.getKey()).equals(ecl))
+				.mapToInt(entry -> entry.getValue().get()).sum();
+	}
+
+	@Test
+	public void testNormaliseIgnoresInsignificantWhitespace() {
+		assertEquals(EclQueryCache.normalise("*:272741003=*"), EclQueryCache.normalise(" * : 272741003 =* "));
+		assertEquals(EclQueryCache.normalise("<<404684003:[0..*]{[0..1]363698007=*}"),
+				EclQueryCache.normalise("<<404684003:[0..*] { [0..1] 363698007=* }"));
+		assertEquals(EclQueryCache.normalise("(*:272741003=*) MINUS (<<91723000 OR <<723264001)"),
+				EclQueryCache.normalise("(*:272741003=*)  MINUS\t( << 91723000 OR << 723264001 )"));
+	}
+
+	@Test
+	public void testNormaliseKeepsWordsApart() {
+		assertNotEquals(EclQueryCache.normalise("<<91723000 OR <<723264001"), EclQueryCache.normalise("<<91723000 AND <<723264001"));
+		assertEquals("<<91723000 OR<<723264001", EclQueryCache.normalise("<< 91723000 OR << 723264001"));
+	}
+}
@@ -0,0 +1,47 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.junit.Test;
+import org.snomed.quality.validator.mrcm.model.MRCMRule;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+
+public class MRCMRuleTest {
+
+	@Test
+	public void testNegateConcreteRangeRule() {
+		MRCMRule rule = MRCMRule.parse("<< 373873005 |Pharmaceutical / biologic product (product)|: [0..*] { [0..1] " +
+				"(3311482005 |Has concentration strength numerator value (attribute)| >= #10 AND 3311482005 |Has concentration strength numerator value (attribute)| <= #20) }");
+		assertEquals("<< 373873005 |Pharmaceutical / biologic product (product)|", rule.getFocus());
+		assertEquals("<< 373873005 |Pharmaceutical / biologic product (product)| : { ( " +
+						"3311482005 |Has concentration strength numerator value (attribute)| < #10 OR 3311482005 |Has concentration strength numerator value (attribute)| > #20 ) }",
+				rule.outOfRange("3311482005").toEcl());
+	}
+
+	@Test
+	public void testOutOfRangeKeepsOtherAttributesAsWritten() {
+		MRCMRule rule = MRCMRule.parse("<< 763158003 |Medicinal product (product)|: [1..1] 1142139005 |Count of base of active ingredient| > #0, " +
+				"[0..*] 766939001 |Plays role| = *, [0..1] 411116001 |Has manufactured dose form| = (<< 736542009 |Dose form| OR << 736478001 |Basic dose form|)");
+		assertEquals("<< 763158003 |Medicinal product (product)| : 1142139005 |Count of base of active ingredient| <= #0 AND " +
+						"766939001 |Plays role| = * AND 411116001 |Has manufactured dose form| = ( << 736542009 |Dose form| OR << 736478001 |Basic dose form| )",
+				rule.outOfRange("1142139005").toEcl());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testOutOfRangeOfAttributeNotInRule() {
+		MRCMRule.parse("<< 763158003: 1142139005 > #0").outOfRange("3311482005");
+	}
+
+	@Test
+	public void testStringValueAndNoRefinement() {
+		assertEquals("<< 404684003 : 1234567002 != \"a: b\"", MRCMRule.parse("<< 404684003: 1234567002 = \"a: b\"").outOfRange("1234567002").toEcl());
+		MRCMRule rule = MRCMRule.parse("<< 404684003 |Clinical finding (finding)|");
+		assertNull(rule.getRefinement());
+		assertEquals("<< 404684003 |Clinical finding (finding)|", rule.toEcl());
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testMixedConjunctionAndDisjunction() {
+		MRCMRule.parse("<< 404684003: 363698007 = * AND 116676008 = * OR 246075003 = *");
+	}
+}
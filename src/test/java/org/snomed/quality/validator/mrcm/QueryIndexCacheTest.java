@@ -0,0 +1,81 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Set;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+public class QueryIndexCacheTest {
+
+	@Rule
+	public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+	private File cacheDirectory;
+
+	@Before
+	public void setUp() throws IOException {
+		cacheDirectory = temporaryFolder.newFolder("cache");
+	}
+
+	@Test
+	public void testLeastRecentlyUsedEntriesEvicted() throws IOException {
+		QueryIndexCache cache = new QueryIndexCache(cacheDirectory, 2);
+		String oldest = addEntry(cache, 'a', 1000);
+		String touched = addEntry(cache, 'b', 2000);
+		String newest = addEntry(cache, 'c', 3000);
+		cache.touch(touched);
+
+		cache.evict(newest);
+		assertFalse(cache.contains(oldest, ContentType.INFERRED));
+		assertFalse(new File(new File(cacheDirectory, "fingerprints"), "release-" + oldest.charAt(0)).exists());
+		assertTrue(cache.contains(touched, ContentType.INFERRED));
+		assertTrue(cache.contains(newest, ContentType.INFERRED));
+		assertTrue(new File(new File(cacheDirectory, "fingerprints"), "release-" + newest.charAt(0)).exists());
+	}
+
+	@Test
+	public void testEntryInUseIsNeverEvicted() throws IOException {
+		QueryIndexCache cache = new QueryIndexCache(cacheDirectory, 1);
+		String inUse = addEntry(cache, 'a', 1000);
+		String other = addEntry(cache, 'b', 2000);
+
+		cache.evict(inUse);
+		assertTrue(cache.contains(inUse, ContentType.INFERRED));
+		assertFalse(cache.contains(other, ContentType.INFERRED));
+	}
+
+	@Test
+	public void testNothingEvictedWithinTheLimit() throws IOException {
+		QueryIndexCache cache = new QueryIndexCache(cacheDirectory, 3);
+		Set<String> keys = Set.of(addEntry(cache, 'a', 1000), addEntry(cache, 'b', 2000), addEntry(cache, 'c', 3000));
+		cache.evict("c".repeat(64));
+		for (String key : keys) {
+			assertTrue(cache.contains(key, ContentType.INFERRED));
+		}
+	}
+
+	/**
+	 * Adds an inferred index, its relationships and hierarchy under a key of the character, last used at the time given.
+	 */
+	private String addEntry(QueryIndexCache cache, char keyCharacter, long lastUsed) throws IOException {
+		String key = String.valueOf(keyCharacter).repeat(64);
+		File workingDirectory = cache.createWorkingDirectory(key, ContentType.INFERRED);
+		new RelationshipTable.Builder(ContentType.INFERRED).write(cache.getRelationshipTableFile(key, ContentType.INFERRED));
+		new ConceptHierarchy.ReleaseBuilder(ContentType.INFERRED).write(cache.getHierarchyFile(key, ContentType.INFERRED));
+		cache.publish(key, ContentType.INFERRED, workingDirectory);
+		File fingerprints = new File(cacheDirectory, "fingerprints");
+		Files.createDirectories(fingerprints.toPath());
+		Files.writeString(new File(fingerprints, "release-" + keyCharacter).toPath(), key, StandardCharsets.UTF_8);
+		assertTrue(new File(cacheDirectory, key).setLastModified(lastUsed));
+		return key;
+	}
+}
@@ -0,0 +1,39 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.ihtsdo.otf.snomedboot.domain.ConceptConstants;
+import org.junit.Test;
+
+import java.util.List;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+public class SemanticTagIndexTest {
+
+	private static final String SYNONYM = "900000000000013009";
+
+	@Test
+	public void testGetSemanticTag() {
+		assertEquals("body structure", SemanticTagIndex.getSemanticTag("Structure of left hand (body structure)"));
+		assertEquals("qualifier value", SemanticTagIndex.getSemanticTag("Left (qualifier value)"));
+		assertNull(SemanticTagIndex.getSemanticTag("Left"));
+	}
+
+	@Test
+	public void testConceptsByTag() {
+		ConceptDictionary dictionary = ConceptDictionary.of(85562004L, 7771000L, 123037004L);
+		SemanticTagIndex.Builder builder = new SemanticTagIndex.Builder();
+		builder.newDescriptionState("1", null, "1", null, "85562004", "en", ConceptConstants.FSN, "Hand structure (body structure)", null);
+		builder.newDescriptionState("2", null, "1", null, "123037004", "en", ConceptConstants.FSN, "Body structure (body structure)", null);
+		builder.newDescriptionState("3", null, "1", null, "7771000", "en", ConceptConstants.FSN, "Left (qualifier value)", null);
+		// Inactive FSNs and other description types are not indexed
+		builder.newDescriptionState("4", null, "0", null, "7771000", "en", ConceptConstants.FSN, "Left side (body structure)", null);
+		builder.newDescriptionState("5", null, "1", null, "7771000", "en", SYNONYM, "Left (body structure)", null);
+		SemanticTagIndex index = builder.build(dictionary);
+
+		assertEquals(List.of(85562004L, 123037004L), index.getConcepts("body structure").toConceptIds());
+		assertEquals(List.of(7771000L), index.getConcepts("qualifier value").toConceptIds());
+		assertTrue(index.getConcepts("disorder").isEmpty());
+	}
+}
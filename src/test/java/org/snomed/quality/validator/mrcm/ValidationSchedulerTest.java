@@ -0,0 +1,123 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.IntStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+public class ValidationSchedulerTest {
+
+	private ExecutorService executor;
+
+	@Before
+	public void setUp() {
+		executor = Executors.newFixedThreadPool(4);
+	}
+
+	@After
+	public void tearDown() {
+		executor.shutdownNow();
+	}
+
+	@Test
+	public void testDependentTaskRunsAfterItsDependencies() throws Exception {
+		List<String> completed = new CopyOnWriteArrayList<>();
+		ValidationScheduler scheduler = new ValidationScheduler(executor);
+		scheduler.submit("scan", () -> {
+			sleep();
+			completed.add("scan");
+		});
+		scheduler.submit("cardinality", () -> completed.add("cardinality"), "scan");
+		scheduler.awaitCompletion();
+		assertEquals(List.of("scan", "cardinality"), completed);
+	}
+
+	@Test
+	public void testIndependentTasksRunConcurrently() throws Exception {
+		// Each task waits for the other, so they can only both complete when run at the same time
+		CountDownLatch started = new CountDownLatch(2);
+		ValidationScheduler scheduler = new ValidationScheduler(executor);
+		for (String name : List.of("domain", "range")) {
+			scheduler.submit(name, () -> {
+				started.countDown();
+				try {
+					assertTrue(started.await(10, TimeUnit.SECONDS));
+				} catch (InterruptedException e) {
+					throw new IOException(e);
+				}
+			});
+		}
+		scheduler.awaitCompletion();
+		assertEquals(0, started.getCount());
+	}
+
+	@Test
+	public void testFailureSkipsDependentTasks() throws Exception {
+		AtomicBoolean dependentRun = new AtomicBoolean();
+		AtomicBoolean independentRun = new AtomicBoolean();
+		ValidationScheduler scheduler = new ValidationScheduler(executor);
+		scheduler.submit("scan", () -> {
+			throw new IOException("Scan failed");
+		});
+		scheduler.submit("cardinality", () -> dependentRun.set(true), "scan");
+		scheduler.submit("domain", () -> independentRun.set(true));
+		try {
+			scheduler.awaitCompletion();
+			fail("The failure of the scan should be thrown");
+		} catch (IOException e) {
+			assertEquals("Scan failed", e.getMessage());
+		}
+		assertFalse(dependentRun.get());
+		assertTrue(independentRun.get());
+	}
+
+	@Test
+	public void testInvokeAllKeepsTheOrderOfTheUnits() throws Exception {
+		List<Integer> units = IntStream.range(0, 200).boxed().toList();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			List<String> results = pool.submit(() -> ValidationScheduler.invokeAll(units, unit -> "attribute " + unit)).get();
+			assertEquals(units.stream().map(unit -> "attribute " + unit).toList(), results);
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test(expected = IllegalStateException.class)
+	public void testInvokeAllThrowsFailureOfUnit() throws Exception {
+		ValidationScheduler.invokeAll(List.of(1, 2, 3), unit -> {
+			if (unit == 2) {
+				throw new IllegalStateException("No attribute range constraint");
+			}
+			return unit;
+		});
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void testUnknownDependency() {
+		new ValidationScheduler(executor).submit("cardinality", () -> {}, "scan");
+	}
+
+	private static void sleep() throws IOException {
+		try {
+			Thread.sleep(50);
+		} catch (InterruptedException e) {
+			throw new IOException(e);
+		}
+	}
+}
@@ -0,0 +1,135 @@
+package org.snomed.quality.validator.mrcm;
+
+import org.ihtsdo.otf.snomedboot.ReleaseImportException;
+import org.ihtsdo.otf.snomedboot.domain.ConceptConstants;
+import org.ihtsdo.otf.snomedboot.factory.ImpotentComponentFactory;
+import org.ihtsdo.otf.snomedboot.factory.LoadingProfile;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.snomed.quality.validator.mrcm.Constants.*;
+
+public class ZipReleaseImporterTest {
+
+	private File releaseZip;
+
+	@Before
+	public void setUp() throws IOException {
+		// The test release files packaged as a release package would be, below a root folder
+		releaseZip = File.createTempFile("SnomedCT_Test", ".zip");
+		File releaseDirectory = new File(Objects.requireNonNull(getClass().getResource("/rf2TestFiles")).getFile());
+		try (ZipOutputStream out = new ZipOutputStream(new FileOutputStream(releaseZip))) {
+			out.putNextEntry(new ZipEntry("SnomedCT_Test/Snapshot/"));
+			out.closeEntry();
+			for (File file : Objects.requireNonNull(releaseDirectory.listFiles())) {
+				out.putNextEntry(new ZipEntry("SnomedCT_Test/Snapshot/" + file.getName()));
+				Files.copy(file.toPath(), out);
+				out.closeEntry();
+			}
+		}
+	}
+
+	@After
+	public void tearDown() {
+		releaseZip.delete();
+	}
+
+	@Test
+	public void testLoadsComponentsOfTheProfile() throws ReleaseImportException {
+		RowCounter rows = load(LoadingProfile.light.withoutStatedRelationships().withRefsets(OWL_AXIOM_REFSET));
+		assertEquals(201, rows.concepts.get());
+		assertEquals(35, rows.inferredRelationships.get());
+		assertEquals(7, rows.concreteRelationships.get());
+		assertEquals(0, rows.statedRelationships.get());
+		assertTrue(rows.descriptions.get() > 0);
+		// Members of refsets not listed in the profile, here the simple refset, are left out
+		assertEquals(Map.of(OWL_AXIOM_REFSET, 5), rows.getMembersByRefset());
+	}
+
+	@Test
+	public void testStatedProfileLeavesOutInferredRelationships() throws ReleaseImportException {
+		RowCounter rows = load(LoadingProfile.light.withStatedRelationships().withStatedAttributeMapOnConcept().withoutInferredAttributeMapOnConcept()
+				.withoutDescriptions().withRefsets(OWL_AXIOM_REFSET));
+		assertTrue(rows.statedRelationships.get() > 0);
+		assertEquals(0, rows.inferredRelationships.get());
+		assertEquals(0, rows.concreteRelationships.get());
+		assertEquals(0, rows.descriptions.get());
+	}
+
+	@Test
+	public void testLoadsOnlyRefsetFilesMatchingTheFilenamePatterns() throws ReleaseImportException {
+		// The OWL refset is listed but its file doesn't match the pattern
+		RowCounter rows = load(LoadingProfile.light
+				.withRefsets(MRCM_DOMAIN_REFSET, MRCM_ATTRIBUTE_DOMAIN_REFSET, MRCM_ATTRIBUTE_RANGE_REFSET, OWL_AXIOM_REFSET)
+				.withIncludedReferenceSetFilenamePattern(".*MRCM.*")
+				.withInactiveRefsetMembers()
+				.withJustRefsets());
+		assertEquals(0, rows.concepts.get());
+		assertEquals(Map.of(MRCM_DOMAIN_REFSET, 17, MRCM_ATTRIBUTE_DOMAIN_REFSET, 104, MRCM_ATTRIBUTE_RANGE_REFSET, 92), rows.getMembersByRefset());
+	}
+
+	private RowCounter load(LoadingProfile loadingProfile) throws ReleaseImportException {
+		RowCounter rows = new RowCounter();
+		new ZipReleaseImporter().loadSnapshotReleaseFiles(releaseZip, loadingProfile, rows);
+		return rows;
+	}
+
+	private static class RowCounter extends ImpotentComponentFactory {
+
+		private final AtomicInteger concepts = new AtomicInteger();
+		private final AtomicInteger descriptions = new AtomicInteger();
+		private final AtomicInteger inferredRelationships = new AtomicInteger();
+		private final AtomicInteger statedRelationships = new AtomicInteger();
+		private final AtomicInteger concreteRelationships = new AtomicInteger();
+		private final Map<String, AtomicInteger> membersByRefset = new ConcurrentHashMap<>();
+
+		@Override
+		public void newConceptState(String conceptId, String effectiveTime, String active, String moduleId, String definitionStatusId) {
+			concepts.incrementAndGet();
+		}
+
+		@Override
+		public void newDescriptionState(String id, String effectiveTime, String active, String moduleId, String conceptId, String languageCode,
+				String typeId, String term, String caseSignificanceId) {
+			descriptions.incrementAndGet();
+		}
+
+		@Override
+		public void newRelationshipState(String id, String effectiveTime, String active, String moduleId, String sourceId, String destinationId,
+				String relationshipGroup, String typeId, String characteristicTypeId, String modifierId) {
+			(ConceptConstants.STATED_RELATIONSHIP.equals(characteristicTypeId) ? statedRelationships : inferredRelationships).incrementAndGet();
+		}
+
+		@Override
+		public void newConcreteRelationshipState(String id, String effectiveTime, String active, String moduleId, String sourceId, String value,
+				String relationshipGroup, String typeId, String characteristicTypeId, String modifierId) {
+			concreteRelationships.incrementAndGet();
+		}
+
+		@Override
+		public void newReferenceSetMemberState(String[] fieldNames, String id, String effectiveTime, String active, String moduleId, String refsetId,
+				String referencedComponentId, String... otherValues) {
+			membersByRefset.computeIfAbsent(refsetId, key -> new AtomicInteger()).incrementAndGet();
+		}
+
+		private Map<String, Integer> getMembersByRefset() {
+			Map<String, Integer> counts = new ConcurrentHashMap<>();
+			membersByRefset.forEach((refsetId, count) -> counts.put(refsetId, count.get()));
+			return counts;
+		}
+	}
+}